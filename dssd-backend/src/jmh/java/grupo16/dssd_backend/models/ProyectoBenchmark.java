@@ -0,0 +1,63 @@
+package grupo16.dssd_backend.models;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import grupo16.dssd_backend.dtos.ActividadDTO;
+import grupo16.dssd_backend.dtos.ProyectoDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Trabajo de CPU por request de crear-proyecto: validación, mapeo DTO -> entidad
+ * y (de)serialización JSON del body, para planes de 1 a 1000 actividades.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProyectoBenchmark {
+
+    private static final Recurso[] RECURSOS = Recurso.values();
+
+    @Param({"1", "10", "100", "1000"})
+    public int actividades;
+
+    private ObjectMapper mapper;
+    private ProyectoDTO proyectoDTO;
+    private byte[] proyectoJson;
+
+    @Setup
+    public void setup() throws Exception {
+        this.mapper = JsonMapper.builder().findAndAddModules().build();
+        var lista = IntStream.range(0, this.actividades)
+                .mapToObj(i -> new ActividadDTO("Actividad " + i,
+                        LocalDate.of(2025, 1, 1).plusDays(i),
+                        LocalDate.of(2025, 2, 1).plusDays(i),
+                        RECURSOS[i % RECURSOS.length].name(),
+                        i % 3 == 0))
+                .toList();
+        this.proyectoDTO = new ProyectoDTO("Proyecto", "Descripción del proyecto", "La Plata", null, lista);
+        this.proyectoJson = this.mapper.writeValueAsBytes(this.proyectoDTO);
+    }
+
+    @Benchmark
+    public boolean validar() {
+        return this.proyectoDTO.validate();
+    }
+
+    @Benchmark
+    public Proyecto mapearAEntidad() {
+        return new Proyecto(this.proyectoDTO);
+    }
+
+    @Benchmark
+    public byte[] serializarDTO() throws Exception {
+        return this.mapper.writeValueAsBytes(this.proyectoDTO);
+    }
+
+    @Benchmark
+    public ProyectoDTO deserializarDTO() throws Exception {
+        return this.mapper.readValue(this.proyectoJson, ProyectoDTO.class);
+    }
+}
@@ -0,0 +1,97 @@
+package grupo16.dssd_backend.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import grupo16.dssd_backend.dtos.TareaBonitaDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Trabajo de CPU de la orquestación con Bonita: armado de variables de caso, parseo de
+ * Set-Cookie del login y (de)serialización de las respuestas de la API REST, genéricas y tipadas.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BonitaServiceBenchmark {
+
+    private static final TypeReference<List<Map<String, Object>>> LISTA_MAPAS = new TypeReference<>() {};
+    private static final TypeReference<List<TareaBonitaDTO>> LISTA_TAREAS = new TypeReference<>() {};
+
+    // tamaño de la respuesta de humanTask/process (una entrada por actividad/tarea)
+    @Param({"1", "10", "100", "1000"})
+    public int elementos;
+
+    private ObjectMapper mapper;
+    private Map.Entry<String, Object> variable;
+    private List<String> setCookies;
+    private List<Map<String, Object>> respuesta;
+    private byte[] respuestaJson;
+
+    @Setup
+    public void setup() throws Exception {
+        this.mapper = JsonMapper.builder().findAndAddModules().build();
+        this.variable = Map.entry("nombre", "Proyecto de prueba");
+        this.setCookies = List.of(
+                "bonita.tenant=1; Path=/bonita; SameSite=Lax",
+                "JSESSIONID=7A1C3F0E9B2D4C6A8E0F1A2B3C4D5E6F; Path=/bonita; HttpOnly; SameSite=Lax",
+                "X-Bonita-API-Token=0f3b7c2a-9d4e-4b1a-8c6f-2e5d7a9b1c3d; Path=/bonita; SameSite=Lax",
+                "BOS_Locale=es; Path=/");
+        this.respuesta = IntStream.range(0, this.elementos).mapToObj(BonitaServiceBenchmark::tarea).toList();
+        this.respuestaJson = this.mapper.writeValueAsBytes(this.respuesta);
+    }
+
+    @Benchmark
+    public Map<String, Object> crearBodyVariable() {
+        return BonitaService.crearBodyVariable(this.variable);
+    }
+
+    @Benchmark
+    public Map<String, String> parseSetCookieHeaders() {
+        return BonitaService.parseSetCookieHeaders(this.setCookies);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> deserializarRespuesta() throws Exception {
+        return this.mapper.readValue(this.respuestaJson, LISTA_MAPAS);
+    }
+
+    @Benchmark
+    public List<TareaBonitaDTO> deserializarRespuestaTipada() throws Exception {
+        return this.mapper.readValue(this.respuestaJson, LISTA_TAREAS);
+    }
+
+    @Benchmark
+    public byte[] serializarRespuesta() throws Exception {
+        return this.mapper.writeValueAsBytes(this.respuesta);
+    }
+
+    // forma de un item de /API/bpm/humanTask
+    private static Map<String, Object> tarea(int i) {
+        Map<String, Object> t = new LinkedHashMap<>();
+        t.put("id", String.valueOf(20000 + i));
+        t.put("caseId", String.valueOf(1000 + i));
+        t.put("rootCaseId", String.valueOf(1000 + i));
+        t.put("processId", "6543210987654321");
+        t.put("name", "Completar datos del proyecto");
+        t.put("displayName", "Completar datos del proyecto");
+        t.put("description", "");
+        t.put("state", "ready");
+        t.put("type", "USER_TASK");
+        t.put("assigned_id", "");
+        t.put("assigned_date", "");
+        t.put("priority", "normal");
+        t.put("dueDate", "2025-01-01 12:00:00.000");
+        t.put("reached_state_date", "2025-01-01 11:00:00.000");
+        t.put("last_update_date", "2025-01-01 11:00:00.000");
+        t.put("executedBy", "0");
+        t.put("actorId", "102");
+        t.put("parentCaseId", String.valueOf(1000 + i));
+        return t;
+    }
+}
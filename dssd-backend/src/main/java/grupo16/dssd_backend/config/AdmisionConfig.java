@@ -0,0 +1,74 @@
+package grupo16.dssd_backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Límites de admisión por usuario para crear-proyecto y login, así un cliente con un loop
+ * de reintentos no llena Bonita de instanciaciones. Se evalúa en runtime (no con una
+ * condición de bean) para poder apagarlo también en la imagen con AOT.
+ */
+@Configuration
+public class AdmisionConfig implements WebMvcConfigurer {
+
+    private final boolean habilitada;
+    private final int capacidadCreacion;
+    private final double creacionesPorMinuto;
+    private final int capacidadLogin;
+    private final double loginsPorMinuto;
+    private final Map<String, Double> multiplicadores;
+    private final Duration inactividad;
+    private final long maxCubetas;
+    private final MeterRegistry meterRegistry;
+
+    public AdmisionConfig(@Value("${admision.habilitada:true}") boolean habilitada,
+                          @Value("${admision.crear-proyecto.capacidad:10}") int capacidadCreacion,
+                          @Value("${admision.crear-proyecto.por-minuto:30}") double creacionesPorMinuto,
+                          @Value("${admision.login.capacidad:5}") int capacidadLogin,
+                          @Value("${admision.login.por-minuto:10}") double loginsPorMinuto,
+                          @Value("${admision.multiplicadores:}") String multiplicadores,
+                          @Value("${admision.inactividad:PT10M}") Duration inactividad,
+                          @Value("${admision.max-cubetas:100000}") long maxCubetas,
+                          MeterRegistry meterRegistry) {
+        this.habilitada = habilitada;
+        this.capacidadCreacion = capacidadCreacion;
+        this.creacionesPorMinuto = creacionesPorMinuto;
+        this.capacidadLogin = capacidadLogin;
+        this.loginsPorMinuto = loginsPorMinuto;
+        this.multiplicadores = parsearMultiplicadores(multiplicadores);
+        this.inactividad = inactividad;
+        this.maxCubetas = maxCubetas;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!this.habilitada) return;
+        registry.addInterceptor(this.limitador("crear-proyecto", this.capacidadCreacion, this.creacionesPorMinuto))
+                .addPathPatterns("/api/v1/crear-proyecto", "/api/v1/crear-proyecto/async", "/api/v1/crear-proyectos");
+        registry.addInterceptor(this.limitador("login", this.capacidadLogin, this.loginsPorMinuto))
+                .addPathPatterns("/api/v1/login");
+    }
+
+    private LimitadorAdmision limitador(String endpoint, int capacidad, double porMinuto) {
+        return new LimitadorAdmision(endpoint, capacidad, porMinuto, this.multiplicadores,
+                this.inactividad, this.maxCubetas, this.meterRegistry);
+    }
+
+    // "usuario:factor,usuario:factor" -> factor que multiplica capacidad y recarga de ese usuario
+    private static Map<String, Double> parsearMultiplicadores(String valor) {
+        return Arrays.stream(valor.split(","))
+                .map(String::trim)
+                .filter(par -> !par.isEmpty())
+                .map(par -> par.split(":", 2))
+                .collect(Collectors.toUnmodifiableMap(par -> par[0].trim(), par -> Double.parseDouble(par[1].trim())));
+    }
+}
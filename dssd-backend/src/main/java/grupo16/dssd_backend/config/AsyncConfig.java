@@ -0,0 +1,55 @@
+package grupo16.dssd_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor creacionProyectoExecutor(
+            @Value("${proyectos.async.hilos:4}") int hilos,
+            @Value("${proyectos.async.capacidad-cola:100}") int capacidadCola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setThreadNamePrefix("creacion-proyecto-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor creacionMasivaExecutor(@Value("${proyectos.bulk.paralelismo:8}") int paralelismo) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(paralelismo);
+        executor.setMaxPoolSize(paralelismo);
+        executor.setThreadNamePrefix("creacion-masiva-");
+        // si se satura la cola, el hilo del request arranca el caso él mismo en vez de rechazarlo
+        executor.setQueueCapacity(paralelismo * 10);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Executor para los pasos de Bonita que corren en paralelo. Con hilos virtuales
+     * cada llamada bloqueante usa su propio hilo barato; si no, un pool acotado.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService bonitaExecutor(@Value("${bonita.hilos-virtuales:${spring.threads.virtual.enabled:false}}") boolean hilosVirtuales,
+                                          @Value("${bonita.hilos:32}") int hilos) {
+        if (hilosVirtuales) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bonita-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(hilos, Thread.ofPlatform().name("bonita-", 0).daemon().factory());
+    }
+}
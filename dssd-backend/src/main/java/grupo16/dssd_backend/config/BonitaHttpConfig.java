@@ -0,0 +1,101 @@
+package grupo16.dssd_backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.function.ToIntFunction;
+
+/**
+ * Transporte HTTP hacia Bonita: pool de conexiones keep-alive con timeouts explícitos,
+ * para que un nodo lento no retenga indefinidamente los hilos de request.
+ */
+@Configuration
+public class BonitaHttpConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager bonitaConnectionManager(
+            @Value("${bonita.http.max-conexiones:100}") int maxConexiones,
+            @Value("${bonita.http.max-conexiones-por-ruta:50}") int maxConexionesPorRuta,
+            @Value("${bonita.http.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${bonita.http.read-timeout:PT10S}") Duration readTimeout,
+            @Value("${bonita.http.ttl-conexion:PT5M}") Duration ttlConexion,
+            @Value("${bonita.http.validar-tras-inactividad:PT2S}") Duration validarTrasInactividad,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConexiones)
+                .setMaxConnPerRoute(maxConexionesPorRuta)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(ttlConexion.toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(validarTrasInactividad.toMillis()))
+                        .build())
+                .build();
+
+        registrarGauge(meterRegistry, connectionManager, "leased", PoolStats::getLeased);
+        registrarGauge(meterRegistry, connectionManager, "pending", PoolStats::getPending);
+        registrarGauge(meterRegistry, connectionManager, "available", PoolStats::getAvailable);
+        registrarGauge(meterRegistry, connectionManager, "max", PoolStats::getMax);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient bonitaHttpClient(
+            PoolingHttpClientConnectionManager bonitaConnectionManager,
+            @Value("${bonita.http.pool-timeout:PT1S}") Duration poolTimeout,
+            @Value("${bonita.http.response-timeout:PT15S}") Duration responseTimeout,
+            @Value("${bonita.http.desalojo-inactivas:PT30S}") Duration desalojoInactivas) {
+        return HttpClients.custom()
+                .setConnectionManager(bonitaConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeout.toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(desalojoInactivas.toMillis()))
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory bonitaRequestFactory(
+            CloseableHttpClient bonitaHttpClient,
+            @Value("${bonita.http.http2:false}") boolean http2,
+            @Value("${bonita.http.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${bonita.http.read-timeout:PT10S}") Duration readTimeout) {
+        if (http2) {
+            // HttpClient del JDK: multiplexa sobre HTTP/2 y gestiona su propio pool (no aparece en las métricas)
+            HttpClient jdkClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .build();
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(jdkClient);
+            factory.setReadTimeout(readTimeout);
+            return factory;
+        }
+        return new HttpComponentsClientHttpRequestFactory(bonitaHttpClient);
+    }
+
+    private static void registrarGauge(MeterRegistry registry, PoolingHttpClientConnectionManager connectionManager,
+                                       String estado, ToIntFunction<PoolStats> valor) {
+        Gauge.builder("bonita.http.pool.conexiones", connectionManager, cm -> valor.applyAsInt(cm.getTotalStats()))
+                .tag("estado", estado)
+                .register(registry);
+    }
+}
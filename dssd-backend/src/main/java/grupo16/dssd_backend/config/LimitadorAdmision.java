@@ -0,0 +1,95 @@
+package grupo16.dssd_backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import grupo16.dssd_backend.dtos.BonitaSession;
+import grupo16.dssd_backend.helpers.CubetaTokens;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control de admisión de un grupo de endpoints: una CubetaTokens por usuario Bonita, o por IP
+ * si el request no trae sesión (login). Las cubetas inactivas se desalojan, así la memoria
+ * queda acotada aunque haya muchos clientes.
+ */
+class LimitadorAdmision implements HandlerInterceptor {
+
+    private final int capacidad;
+    private final long intervaloNanos;
+    private final Map<String, Double> multiplicadores;
+    private final Cache<String, CubetaTokens> cubetas;
+    private final Counter permitidas;
+    private final Counter rechazadas;
+
+    LimitadorAdmision(String endpoint, int capacidad, double porMinuto, Map<String, Double> multiplicadores,
+                      Duration inactividad, long maxCubetas, MeterRegistry meterRegistry) {
+        this.capacidad = capacidad;
+        this.intervaloNanos = (long) (TimeUnit.MINUTES.toNanos(1) / porMinuto);
+        this.multiplicadores = multiplicadores;
+        this.cubetas = Caffeine.newBuilder()
+                .expireAfterAccess(inactividad)
+                .maximumSize(maxCubetas)
+                .build();
+        this.permitidas = Counter.builder("admision.solicitudes")
+                .tag("endpoint", endpoint)
+                .tag("resultado", "permitida")
+                .register(meterRegistry);
+        this.rechazadas = Counter.builder("admision.solicitudes")
+                .tag("endpoint", endpoint)
+                .tag("resultado", "rechazada")
+                .register(meterRegistry);
+        Gauge.builder("admision.cubetas", this.cubetas, Cache::estimatedSize)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (CorsUtils.isPreFlightRequest(request)) return true;
+
+        String usuario = usuario(request);
+        // sin sesión, la IP del cliente: server.forward-headers-strategy la resuelve detrás del balanceador
+        String clave = usuario != null ? "u:" + usuario : "ip:" + request.getRemoteAddr();
+        long espera = this.cubetas.get(clave, k -> this.nuevaCubeta(usuario)).tomar(System.nanoTime());
+        if (espera == 0) {
+            this.permitidas.increment();
+            return true;
+        }
+
+        this.rechazadas.increment();
+        long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"Demasiadas solicitudes, reintentar en " + segundos + " s\"}");
+        return false;
+    }
+
+    private CubetaTokens nuevaCubeta(String usuario) {
+        double multiplicador = usuario == null ? 1 : this.multiplicadores.getOrDefault(usuario, 1d);
+        return new CubetaTokens(Math.max(1, (int) Math.round(this.capacidad * multiplicador)),
+                Math.max(1, (long) (this.intervaloNanos / multiplicador)));
+    }
+
+    private static String usuario(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null) return null;
+        return session.getAttribute("bonitaSession") instanceof BonitaSession bs ? bs.username() : null;
+    }
+}
@@ -0,0 +1,58 @@
+package grupo16.dssd_backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Borra las sesiones vencidas de a lotes, cada uno en su propia sentencia, para no tomar
+ * locks sobre toda la tabla ni generar una transacción enorme si se acumularon muchas.
+ * Los atributos se van con ON DELETE CASCADE.
+ */
+@Component
+@ConditionalOnProperty(name = "sesiones.store", havingValue = "jdbc")
+class LimpiadorSesionesJdbc {
+
+    private static final Logger logger = LoggerFactory.getLogger(LimpiadorSesionesJdbc.class);
+
+    private static final String BORRAR_VENCIDAS = "DELETE FROM " + SesionesJdbcConfig.TABLA
+            + " WHERE PRIMARY_ID IN (SELECT PRIMARY_ID FROM " + SesionesJdbcConfig.TABLA
+            + " WHERE EXPIRY_TIME < ? ORDER BY EXPIRY_TIME LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanioLote;
+    private final int maxLotes;
+    private final Counter borradas;
+
+    public LimpiadorSesionesJdbc(JdbcTemplate jdbcTemplate,
+                                 @Value("${sesiones.limpieza.tamanio-lote:500}") int tamanioLote,
+                                 @Value("${sesiones.limpieza.max-lotes:20}") int maxLotes,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanioLote = tamanioLote;
+        this.maxLotes = maxLotes;
+        this.borradas = Counter.builder("sesiones.vencidas.borradas").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${sesiones.limpieza.intervalo:PT1M}")
+    public void limpiar() {
+        long ahora = System.currentTimeMillis();
+        int total = 0;
+        // tope de lotes por corrida: lo que quede se borra en la siguiente
+        for (int lote = 0; lote < this.maxLotes; lote++) {
+            int n = this.jdbcTemplate.update(BORRAR_VENCIDAS, ahora, this.tamanioLote);
+            total += n;
+            if (n < this.tamanioLote) break;
+        }
+        if (total > 0) {
+            this.borradas.increment(total);
+            logger.debug("Sesiones vencidas borradas: {}", total);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package grupo16.dssd_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Si se migra o no se decide en runtime con migraciones.ejecutar (FLYWAY_HABILITADO) y no con
+ * spring.flyway.enabled: con Spring AOT la auto-configuración de Flyway queda fija al construir
+ * la imagen y apagarla por propiedad no tendría efecto. El entrenamiento de CDS la apaga así
+ * para refrescar el contexto sin base.
+ */
+@Configuration
+public class MigracionesConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigracionesConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy estrategiaMigracion(@Value("${migraciones.ejecutar:true}") boolean ejecutar) {
+        return flyway -> {
+            if (ejecutar) {
+                flyway.migrate();
+            } else {
+                logger.info("Migraciones deshabilitadas (migraciones.ejecutar=false)");
+            }
+        };
+    }
+}
@@ -0,0 +1,202 @@
+package grupo16.dssd_backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Repositorio de sesiones que pone un cache local de lectura delante del store compartido.
+ * <p>
+ * Cada request trabaja sobre una copia de la sesión cacheada y solo escribe en el store si
+ * cambió algún atributo o el intervalo de inactividad, o si pasó más de intervalo-toque desde
+ * el último acceso escrito, así un usuario activo no genera un UPDATE por request.
+ * <p>
+ * El cache solo guarda lo que está en el store: un toque que no se escribe no se cachea, así
+ * el último acceso cacheado es el persistido (contra el que se mide intervalo-toque) y no se
+ * reinicia el TTL. Ese TTL acota cuánto puede tardar una réplica en ver un cambio hecho en
+ * otra (un logout, una sesión Bonita renovada).
+ */
+class RepositorioSesionesCacheado implements SessionRepository<RepositorioSesionesCacheado.SesionCacheada> {
+
+    private final SessionRepository<Session> store;
+    private final Cache<String, MapSession> cache;
+    private final Duration intervaloToque;
+
+    RepositorioSesionesCacheado(SessionRepository<Session> store, Duration ttlCache, long maxSesiones,
+                                Duration intervaloToque, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.intervaloToque = intervaloToque;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttlCache)
+                .maximumSize(maxSesiones)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "sesiones.http");
+    }
+
+    @Override
+    public SesionCacheada createSession() {
+        Session nueva = this.store.createSession();
+        return new SesionCacheada(new MapSession(nueva), nueva, this.store);
+    }
+
+    @Override
+    public void save(SesionCacheada sesion) {
+        if (!sesion.hayQueEscribir(this.intervaloToque)) {
+            // solo cambió el último acceso y hace poco que se escribió: no se guarda en ningún lado.
+            // Volver a cachearlo movería el último acceso de referencia sin que llegue a la base
+            // (el limpiador borraría la sesión de un usuario activo) y reiniciaría el TTL.
+            return;
+        }
+
+        Session destino = sesion.enStore != null ? sesion.enStore : this.store.findById(sesion.idOriginal);
+        if (destino == null) {
+            // la borraron en otra réplica (logout) o venció
+            this.cache.invalidate(sesion.idOriginal);
+            return;
+        }
+        sesion.cambios.forEach(destino::setAttribute);
+        destino.setMaxInactiveInterval(sesion.datos.getMaxInactiveInterval());
+        destino.setLastAccessedTime(sesion.datos.getLastAccessedTime());
+        this.store.save(destino);
+
+        if (!sesion.idOriginal.equals(destino.getId())) {
+            this.cache.invalidate(sesion.idOriginal);
+        }
+        sesion.datos.setId(destino.getId());
+        this.cache.put(destino.getId(), new MapSession(sesion.datos));
+    }
+
+    @Override
+    public SesionCacheada findById(String id) {
+        MapSession cacheada = this.cache.get(id, this::cargar);
+        if (cacheada == null) return null;
+        if (cacheada.isExpired()) {
+            this.deleteById(id);
+            return null;
+        }
+        return new SesionCacheada(new MapSession(cacheada), null, this.store);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        this.cache.invalidate(id);
+        this.store.deleteById(id);
+    }
+
+    private MapSession cargar(String id) {
+        Session sesion = this.store.findById(id);
+        return sesion == null ? null : new MapSession(sesion);
+    }
+
+    /**
+     * Copia de trabajo de una sesión durante un request, con los atributos que cambiaron.
+     */
+    static final class SesionCacheada implements Session {
+
+        private final MapSession datos;
+        private final String idOriginal;
+        private final Instant ultimoAccesoGuardado;
+        private final Duration inactividadGuardada;
+        private final Map<String, Object> cambios = new HashMap<>();
+        private final SessionRepository<Session> store;
+        // sesión del store: al crearla o al cambiarle el ID; si no, se carga al guardar
+        private Session enStore;
+
+        private SesionCacheada(MapSession datos, Session enStore, SessionRepository<Session> store) {
+            this.datos = datos;
+            this.enStore = enStore;
+            this.store = store;
+            this.idOriginal = datos.getId();
+            this.ultimoAccesoGuardado = datos.getLastAccessedTime();
+            this.inactividadGuardada = datos.getMaxInactiveInterval();
+        }
+
+        private boolean hayQueEscribir(Duration intervaloToque) {
+            return this.enStore != null
+                    || !this.cambios.isEmpty()
+                    || !this.inactividadGuardada.equals(this.datos.getMaxInactiveInterval())
+                    || Duration.between(this.ultimoAccesoGuardado, this.datos.getLastAccessedTime()).compareTo(intervaloToque) >= 0;
+        }
+
+        @Override
+        public String getId() {
+            return this.enStore != null ? this.enStore.getId() : this.datos.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            // el nuevo ID lo genera el store, así que acá sí hace falta la sesión real
+            if (this.enStore == null) {
+                this.enStore = this.store.findById(this.idOriginal);
+            }
+            if (this.enStore == null) {
+                this.enStore = this.store.createSession();
+                this.datos.getAttributeNames().forEach(nombre -> this.cambios.put(nombre, this.datos.getAttribute(nombre)));
+            }
+            return this.enStore.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return this.datos.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return this.datos.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            this.datos.setAttribute(attributeName, attributeValue);
+            this.cambios.put(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            this.datos.removeAttribute(attributeName);
+            this.cambios.put(attributeName, null);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return this.datos.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            this.datos.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return this.datos.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            this.datos.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return this.datos.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return this.datos.isExpired();
+        }
+    }
+}
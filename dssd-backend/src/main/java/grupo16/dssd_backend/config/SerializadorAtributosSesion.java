@@ -0,0 +1,96 @@
+package grupo16.dssd_backend.config;
+
+import grupo16.dssd_backend.dtos.BonitaSession;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Serialización de los atributos de sesión guardados en la base. {@link BonitaSession} y los
+ * String van en un formato binario propio: solo los valores, sin el descriptor de clase que
+ * arrastra la serialización Java (que además exigiría Serializable). El resto cae a serialización Java.
+ * El primer byte indica el formato.
+ */
+class SerializadorAtributosSesion implements GenericConverter {
+
+    private static final byte JAVA = 0;
+    private static final byte BONITA_SESSION = 1;
+    private static final byte TEXTO = 2;
+
+    private final SerializingConverter serializador = new SerializingConverter();
+    private final DeserializingConverter deserializador = new DeserializingConverter();
+
+    @Override
+    public Set<ConvertiblePair> getConvertibleTypes() {
+        return Set.of(new ConvertiblePair(Object.class, byte[].class), new ConvertiblePair(byte[].class, Object.class));
+    }
+
+    @Override
+    public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+        if (source == null) return null;
+        return byte[].class.equals(targetType.getType()) ? serializar(source) : deserializar((byte[]) source);
+    }
+
+    byte[] serializar(Object valor) {
+        if (valor instanceof String texto) {
+            byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+            byte[] out = new byte[utf8.length + 1];
+            out[0] = TEXTO;
+            System.arraycopy(utf8, 0, out, 1, utf8.length);
+            return out;
+        }
+        if (!(valor instanceof BonitaSession bs)) {
+            byte[] java = this.serializador.convert(valor);
+            byte[] out = new byte[java.length + 1];
+            out[0] = JAVA;
+            System.arraycopy(java, 0, out, 1, java.length);
+            return out;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(BONITA_SESSION);
+            escribir(out, bs.username());
+            escribir(out, bs.jsessionId());
+            escribir(out, bs.xBonitaToken());
+            out.writeLong(bs.createdAtEpochMs());
+            escribir(out, bs.userId());
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Object deserializar(byte[] bytes) {
+        if (bytes.length == 0) return null;
+        return switch (bytes[0]) {
+            case TEXTO -> new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+            case JAVA -> this.deserializador.convert(Arrays.copyOfRange(bytes, 1, bytes.length));
+            case BONITA_SESSION -> {
+                try {
+                    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+                    yield new BonitaSession(leer(in), leer(in), leer(in), in.readLong(), leer(in));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            default -> throw new IllegalArgumentException("Formato de atributo de sesión desconocido: " + bytes[0]);
+        };
+    }
+
+    private static void escribir(DataOutputStream out, String valor) throws IOException {
+        out.writeBoolean(valor != null);
+        if (valor != null) out.writeUTF(valor);
+    }
+
+    private static String leer(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
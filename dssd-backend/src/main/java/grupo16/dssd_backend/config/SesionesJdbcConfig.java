@@ -0,0 +1,84 @@
+package grupo16.dssd_backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.jdbc.init.PlatformPlaceholderDatabaseDriverResolver;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.FlushMode;
+import org.springframework.session.SaveMode;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Sesiones HTTP en la base compartida (sesiones.store=jdbc) para poder correr varias réplicas
+ * detrás de un balanceador sin afinidad. Con sesiones.store=memoria se usa la sesión del
+ * contenedor, como antes.
+ * <p>
+ * Las escrituras se hacen al final del request (FlushMode.ON_SAVE) y solo de los atributos
+ * que se setearon (SaveMode.ON_SET_ATTRIBUTE); las lecturas pasan por un cache local.
+ */
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnProperty(name = "sesiones.store", havingValue = "jdbc")
+public class SesionesJdbcConfig {
+
+    static final String TABLA = "SPRING_SESSION";
+
+    @Bean
+    public SessionRepository<?> sessionRepository(JdbcTemplate jdbcTemplate,
+                                                  PlatformTransactionManager transactionManager,
+                                                  @Value("${server.servlet.session.timeout:PT30M}") Duration timeout,
+                                                  @Value("${sesiones.cache.ttl:PT10S}") Duration ttlCache,
+                                                  @Value("${sesiones.cache.max-size:10000}") long maxSesiones,
+                                                  @Value("${sesiones.intervalo-toque:PT1M}") Duration intervaloToque,
+                                                  MeterRegistry meterRegistry) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        GenericConversionService conversion = new GenericConversionService();
+        conversion.addConverter(new SerializadorAtributosSesion());
+
+        // no es un bean: la limpieza de vencidas la hace LimpiadorSesionesJdbc en lotes
+        JdbcIndexedSessionRepository jdbc = new JdbcIndexedSessionRepository(jdbcTemplate, tx);
+        jdbc.setTableName(TABLA);
+        jdbc.setDefaultMaxInactiveInterval(timeout);
+        jdbc.setFlushMode(FlushMode.ON_SAVE);
+        jdbc.setSaveMode(SaveMode.ON_SET_ATTRIBUTE);
+        jdbc.setConversionService(conversion);
+
+        @SuppressWarnings("unchecked")
+        SessionRepository<Session> store = (SessionRepository<Session>) (SessionRepository<?>) jdbc;
+        return new RepositorioSesionesCacheado(store, ttlCache, maxSesiones, intervaloToque, meterRegistry);
+    }
+
+    /**
+     * Crea las tablas de Spring Session con el script de la plataforma si todavía no existen.
+     */
+    @Bean
+    public DataSourceScriptDatabaseInitializer sesionesSchemaInitializer(
+            DataSource dataSource,
+            @Value("${sesiones.jdbc.inicializar-esquema:ALWAYS}") DatabaseInitializationMode modo) {
+        DatabaseInitializationSettings settings = new DatabaseInitializationSettings();
+        settings.setSchemaLocations(new PlatformPlaceholderDatabaseDriverResolver()
+                .resolveAll(dataSource, "classpath:org/springframework/session/jdbc/schema-@@platform@@.sql"));
+        settings.setMode(modo);
+        // los scripts no usan IF NOT EXISTS: con las tablas ya creadas falla y se sigue
+        settings.setContinueOnError(true);
+        return new DataSourceScriptDatabaseInitializer(dataSource, settings);
+    }
+}
@@ -1,15 +1,35 @@
 package grupo16.dssd_backend.controllers;
 
 import grupo16.dssd_backend.dtos.BonitaSession;
+import grupo16.dssd_backend.dtos.FiltroExportacionDTO;
+import grupo16.dssd_backend.dtos.FiltroProyectosDTO;
 import grupo16.dssd_backend.dtos.LoginDTO;
 import grupo16.dssd_backend.dtos.ProyectoDTO;
 import grupo16.dssd_backend.helpers.BonitaSessionHolder;
+import grupo16.dssd_backend.models.EstadoProyecto;
+import grupo16.dssd_backend.models.Recurso;
+import grupo16.dssd_backend.services.BonitaNoDisponibleException;
 import grupo16.dssd_backend.services.I_BonitaService;
+import grupo16.dssd_backend.services.I_EstadisticasService;
+import grupo16.dssd_backend.services.I_ExportacionService;
+import grupo16.dssd_backend.services.I_IndiceActividadesService;
 import grupo16.dssd_backend.services.I_ProyectoService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.coyote.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -18,10 +38,25 @@ class APIControllerV1 implements I_API {
 
     private final I_BonitaService bonitaService;
     private final I_ProyectoService proyectoService;
+    private final I_ExportacionService exportacionService;
+    private final I_IndiceActividadesService indiceActividades;
+    private final I_EstadisticasService estadisticasService;
+    private final int maxItemsCreacionMasiva;
+    private final int maxTamanioPagina;
 
-    public APIControllerV1(I_BonitaService bonitaService, I_ProyectoService proyectoService) {
+    public APIControllerV1(I_BonitaService bonitaService, I_ProyectoService proyectoService,
+                           I_ExportacionService exportacionService,
+                           I_IndiceActividadesService indiceActividades,
+                           I_EstadisticasService estadisticasService,
+                           @Value("${proyectos.bulk.max-items:1000}") int maxItemsCreacionMasiva,
+                           @Value("${proyectos.consulta.max-tamanio-pagina:100}") int maxTamanioPagina) {
         this.bonitaService = bonitaService;
         this.proyectoService = proyectoService;
+        this.exportacionService = exportacionService;
+        this.indiceActividades = indiceActividades;
+        this.estadisticasService = estadisticasService;
+        this.maxItemsCreacionMasiva = maxItemsCreacionMasiva;
+        this.maxTamanioPagina = maxTamanioPagina;
     }
 
     @Override
@@ -30,8 +65,7 @@ class APIControllerV1 implements I_API {
         var cookies = this.bonitaService.loginAndReturnCookies(req.username(), req.password());
         // guardar en sesión
         var session = httpReq.getSession(true);
-        session.setAttribute("bonitaSession", new BonitaSession(
-                req.username(), cookies.jsessionId(), cookies.xBonitaToken(), System.currentTimeMillis()));
+        session.setAttribute("bonitaSession", cookies);
         return ResponseEntity.ok().body(Map.of("message", "Sesion iniciada correctamente"));
     }
 
@@ -55,10 +89,192 @@ class APIControllerV1 implements I_API {
             return ResponseEntity.status(400).body(Map.of("error", "Datos inválidos"));
         }
 
-        this.proyectoService.createProject(proyectoDTO);
+        var estado = this.proyectoService.createProject(proyectoDTO);
+        if (EstadoProyecto.PENDIENTE.name().equals(estado.estado())) {
+            // Bonita no disponible: quedó encolado y se puede seguir por el endpoint de estado
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/proyectos/" + estado.id() + "/estado"))
+                    .body(Map.of("id", estado.id(), "message", "Bonita no disponible, el caso se iniciará en segundo plano"));
+        }
         return ResponseEntity.ok(Map.of("message", "Proyecto creado exitosamente"));
     }
 
+    @Override
+    @PostMapping("/crear-proyecto/async")
+    public ResponseEntity<?> crearProyectoAsync(@RequestBody ProyectoDTO proyectoDTO) {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        if(!proyectoDTO.validate()){
+            return ResponseEntity.status(400).body(Map.of("error", "Datos inválidos"));
+        }
+
+        Long id = this.proyectoService.createProjectAsync(proyectoDTO);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/proyectos/" + id + "/estado"))
+                .body(Map.of("id", id, "message", "Proyecto aceptado, el caso se iniciará en segundo plano"));
+    }
+
+    @Override
+    @PostMapping("/crear-proyectos")
+    public ResponseEntity<?> crearProyectos(@RequestBody List<ProyectoDTO> proyectosDTO) {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        if (proyectosDTO == null || proyectosDTO.isEmpty()) {
+            return ResponseEntity.status(400).body(Map.of("error", "Lista de proyectos vacía"));
+        }
+        if (proyectosDTO.size() > this.maxItemsCreacionMasiva) {
+            return ResponseEntity.status(400).body(Map.of("error", "Máximo " + this.maxItemsCreacionMasiva + " proyectos por lote"));
+        }
+
+        // Cada item informa su propio resultado: un item inválido no hace fallar el lote
+        return ResponseEntity.ok(this.proyectoService.createProjects(proyectosDTO));
+    }
+
+    @Override
+    @GetMapping("/proyectos/{id}/estado")
+    public ResponseEntity<?> estadoCreacionProyecto(@PathVariable Long id) {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        return this.proyectoService.obtenerEstadoCreacion(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Proyecto no encontrado")));
+    }
+
+    @Override
+    @GetMapping("/proyectos")
+    public ResponseEntity<?> listarProyectos(@RequestParam(required = false) Long cursor,
+                                             @RequestParam(required = false) Integer tamanio,
+                                             @RequestParam(required = false) String ubicacion,
+                                             @RequestParam(required = false) String nombre,
+                                             @RequestParam(required = false) String recurso) {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        int tamanioPagina = tamanio == null ? 20 : tamanio;
+        if (tamanioPagina < 1 || tamanioPagina > this.maxTamanioPagina) {
+            return ResponseEntity.status(400).body(Map.of("error", "El tamaño de página debe estar entre 1 y " + this.maxTamanioPagina));
+        }
+        Recurso filtroRecurso;
+        try {
+            filtroRecurso = recurso == null ? null : Recurso.valueOf(recurso);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", "Recurso inválido: " + recurso));
+        }
+
+        var filtro = new FiltroProyectosDTO(ubicacion, nombre, filtroRecurso);
+        return ResponseEntity.ok(this.proyectoService.listarProyectos(filtro, cursor, tamanioPagina));
+    }
+
+    @Override
+    @GetMapping("/proyectos/{id}")
+    public ResponseEntity<?> obtenerProyecto(@PathVariable Long id) {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        return this.proyectoService.obtenerProyecto(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Proyecto no encontrado")));
+    }
+
+    @Override
+    @GetMapping("/proyectos/caso/{caseId}")
+    public ResponseEntity<?> obtenerProyectoPorCaso(@PathVariable Long caseId) {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        return this.proyectoService.obtenerProyectoPorCaso(caseId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Proyecto no encontrado")));
+    }
+
+    @Override
+    @GetMapping("/actividades/solapadas")
+    public ResponseEntity<?> actividadesSolapadas(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                                  @RequestParam(required = false) String recurso,
+                                                  @RequestParam(required = false) Boolean colaboracion,
+                                                  @RequestParam(required = false) Integer limite) {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        // sin hasta es una consulta puntual: actividades en curso ese día
+        LocalDate fin = hasta != null ? hasta : desde;
+        if (desde.isAfter(fin)) {
+            return ResponseEntity.status(400).body(Map.of("error", "desde debe ser anterior a hasta"));
+        }
+        int max = limite == null ? this.maxTamanioPagina : limite;
+        if (max < 1 || max > this.maxTamanioPagina) {
+            return ResponseEntity.status(400).body(Map.of("error", "El límite debe estar entre 1 y " + this.maxTamanioPagina));
+        }
+        Recurso filtroRecurso;
+        try {
+            filtroRecurso = recurso == null ? null : Recurso.valueOf(recurso);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", "Recurso inválido: " + recurso));
+        }
+        return ResponseEntity.ok(this.indiceActividades.solapadas(filtroRecurso, desde, fin, colaboracion, max));
+    }
+
+    @Override
+    @GetMapping("/proyectos/exportar")
+    public ResponseEntity<?> exportarProyectos(@RequestParam(defaultValue = "ndjson") String formato,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                               @RequestParam(required = false) String recurso,
+                                               @RequestParam(required = false) String ubicacion) {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        I_ExportacionService.Formato f;
+        Recurso filtroRecurso;
+        try {
+            f = I_ExportacionService.Formato.valueOf(formato.toUpperCase());
+            filtroRecurso = recurso == null ? null : Recurso.valueOf(recurso);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", "Formato o recurso inválido"));
+        }
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            return ResponseEntity.status(400).body(Map.of("error", "desde debe ser anterior a hasta"));
+        }
+
+        // Se escribe a medida que se lee: ni la base ni la respuesta se cargan enteras en memoria
+        var filtro = new FiltroExportacionDTO(desde, hasta, filtroRecurso, ubicacion);
+        StreamingResponseBody cuerpo = out -> this.exportacionService.exportar(filtro, f, out);
+        return ResponseEntity.ok()
+                .contentType(f == I_ExportacionService.Formato.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"proyectos." + f.name().toLowerCase() + "\"")
+                .body(cuerpo);
+    }
+
+    @Override
+    @GetMapping("/estadisticas")
+    public ResponseEntity<?> estadisticas(@RequestParam(required = false) String periodo) {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        if (periodo != null) {
+            try {
+                YearMonth.parse(periodo);
+            } catch (DateTimeParseException e) {
+                return ResponseEntity.status(400).body(Map.of("error", "Período inválido, se espera yyyy-MM: " + periodo));
+            }
+        }
+        // lectura del resumen precalculado, cacheada unos segundos
+        return ResponseEntity.ok(this.estadisticasService.resumen(periodo));
+    }
+
+    @ExceptionHandler(BonitaNoDisponibleException.class)
+    public ResponseEntity<?> bonitaNoDisponible(BonitaNoDisponibleException e) {
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of("error", "Bonita no disponible, reintentá en unos segundos"));
+    }
+
     @Override
     @PostMapping("/logout")
     public ResponseEntity<?> logout(HttpServletRequest request) {
@@ -0,0 +1,69 @@
+package grupo16.dssd_backend.controllers;
+
+import grupo16.dssd_backend.helpers.BonitaSessionHolder;
+import grupo16.dssd_backend.services.I_BonitaService;
+import grupo16.dssd_backend.services.I_CacheSegundoNivelService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+class AdminControllerV1 implements I_AdminAPI {
+
+    private final I_BonitaService bonitaService;
+    private final I_CacheSegundoNivelService cacheSegundoNivelService;
+
+    public AdminControllerV1(I_BonitaService bonitaService, I_CacheSegundoNivelService cacheSegundoNivelService) {
+        this.bonitaService = bonitaService;
+        this.cacheSegundoNivelService = cacheSegundoNivelService;
+    }
+
+    @Override
+    @GetMapping("/cache/procesos")
+    public ResponseEntity<?> estadisticasCacheProcesos() {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        return ResponseEntity.ok(this.bonitaService.estadisticasCacheProcesos());
+    }
+
+    @Override
+    @DeleteMapping("/cache/procesos")
+    public ResponseEntity<?> invalidarCacheProcesos() {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        this.bonitaService.invalidarCacheProcesos();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Override
+    @GetMapping("/bonita/pool")
+    public ResponseEntity<?> estadisticasPoolHttp() {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        return ResponseEntity.ok(this.bonitaService.estadisticasPoolHttp());
+    }
+
+    @Override
+    @GetMapping("/cache/entidades")
+    public ResponseEntity<?> estadisticasCacheSegundoNivel() {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        return ResponseEntity.ok(this.cacheSegundoNivelService.estadisticas());
+    }
+
+    @Override
+    @DeleteMapping("/cache/entidades")
+    public ResponseEntity<?> invalidarCacheSegundoNivel() {
+        if (BonitaSessionHolder.getBonitaSession() == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        this.cacheSegundoNivelService.invalidar();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,63 @@
+package grupo16.dssd_backend.controllers;
+
+import grupo16.dssd_backend.dtos.BonitaSession;
+import grupo16.dssd_backend.dtos.EventoBonitaDTO;
+import grupo16.dssd_backend.helpers.BonitaSessionHolder;
+import grupo16.dssd_backend.services.I_EventosBonitaService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/eventos")
+class EventosControllerV1 implements I_EventosAPI {
+
+    private final I_EventosBonitaService eventosService;
+    private final byte[] secreto;
+
+    public EventosControllerV1(I_EventosBonitaService eventosService,
+                               @Value("${bonita.callback.secreto:}") String secreto) {
+        this.eventosService = eventosService;
+        this.secreto = secreto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Callback para los conectores de Bonita, autenticado con un secreto compartido.
+     * Responde 202 también a los duplicados, así Bonita no reintenta lo ya recibido.
+     */
+    @Override
+    @PostMapping("/bonita")
+    public ResponseEntity<?> recibirEventoBonita(@RequestHeader(name = "X-Callback-Secreto", required = false) String secreto,
+                                                 @RequestBody EventoBonitaDTO evento) {
+        // comparación en tiempo constante; sin secreto configurado el callback queda cerrado
+        if (this.secreto.length == 0 || secreto == null
+                || !MessageDigest.isEqual(this.secreto, secreto.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        if (!evento.validate()) {
+            return ResponseEntity.status(400).body(Map.of("error", "Evento inválido: tipo y caseId son obligatorios"));
+        }
+
+        return switch (this.eventosService.recibir(evento)) {
+            case ACEPTADO, DUPLICADO -> ResponseEntity.accepted().build();
+            case RECHAZADO -> ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("error", "Cola de eventos llena, reintentar"));
+        };
+    }
+
+    @Override
+    @GetMapping("/stream")
+    public ResponseEntity<?> suscribir() {
+        BonitaSession bonitaSession = BonitaSessionHolder.getBonitaSession();
+        if (bonitaSession == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "No autenticado"));
+        }
+        return ResponseEntity.ok(this.eventosService.suscribir(bonitaSession.username()));
+    }
+}
@@ -5,12 +5,33 @@ import grupo16.dssd_backend.dtos.ProyectoDTO;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDate;
+import java.util.List;
+
 public interface I_API {
 
     ResponseEntity<?> login(LoginDTO req, HttpServletRequest httpReq);
 
     ResponseEntity<?> crearProyecto(ProyectoDTO proyectoDTO);
 
+    ResponseEntity<?> crearProyectoAsync(ProyectoDTO proyectoDTO);
+
+    ResponseEntity<?> crearProyectos(List<ProyectoDTO> proyectosDTO);
+
+    ResponseEntity<?> estadoCreacionProyecto(Long id);
+
+    ResponseEntity<?> listarProyectos(Long cursor, Integer tamanio, String ubicacion, String nombre, String recurso);
+
+    ResponseEntity<?> obtenerProyecto(Long id);
+
+    ResponseEntity<?> obtenerProyectoPorCaso(Long caseId);
+
+    ResponseEntity<?> actividadesSolapadas(LocalDate desde, LocalDate hasta, String recurso, Boolean colaboracion, Integer limite);
+
+    ResponseEntity<?> exportarProyectos(String formato, LocalDate desde, LocalDate hasta, String recurso, String ubicacion);
+
+    ResponseEntity<?> estadisticas(String periodo);
+
     ResponseEntity<?> logout(HttpServletRequest req);
 
 }
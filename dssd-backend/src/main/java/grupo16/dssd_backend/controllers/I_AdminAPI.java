@@ -0,0 +1,17 @@
+package grupo16.dssd_backend.controllers;
+
+import org.springframework.http.ResponseEntity;
+
+public interface I_AdminAPI {
+
+    ResponseEntity<?> estadisticasCacheProcesos();
+
+    ResponseEntity<?> invalidarCacheProcesos();
+
+    ResponseEntity<?> estadisticasPoolHttp();
+
+    ResponseEntity<?> estadisticasCacheSegundoNivel();
+
+    ResponseEntity<?> invalidarCacheSegundoNivel();
+
+}
@@ -0,0 +1,12 @@
+package grupo16.dssd_backend.controllers;
+
+import grupo16.dssd_backend.dtos.EventoBonitaDTO;
+import org.springframework.http.ResponseEntity;
+
+public interface I_EventosAPI {
+
+    ResponseEntity<?> recibirEventoBonita(String secreto, EventoBonitaDTO evento);
+
+    ResponseEntity<?> suscribir();
+
+}
@@ -1,5 +1,7 @@
 package grupo16.dssd_backend.dtos;
 
+import grupo16.dssd_backend.models.Actividad;
+
 import java.time.LocalDate;
 
 public record ActividadDTO(
@@ -8,4 +10,14 @@ public record ActividadDTO(
         LocalDate fechaFin,
         String recurso,
         boolean requiereColaboracion
-) {}
+) {
+
+    public static ActividadDTO de(Actividad actividad) {
+        return new ActividadDTO(
+                actividad.getNombre(),
+                actividad.getFechaInicio(),
+                actividad.getFechaFin(),
+                actividad.getRecurso() != null ? actividad.getRecurso().name() : null,
+                Boolean.TRUE.equals(actividad.getRequiereColaboracion()));
+    }
+}
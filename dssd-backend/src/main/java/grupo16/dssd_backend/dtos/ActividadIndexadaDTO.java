@@ -0,0 +1,28 @@
+package grupo16.dssd_backend.dtos;
+
+import grupo16.dssd_backend.models.Actividad;
+import grupo16.dssd_backend.models.Recurso;
+
+import java.time.LocalDate;
+
+public record ActividadIndexadaDTO(
+        Long id,
+        Long proyectoId,
+        String nombre,
+        LocalDate fechaInicio,
+        LocalDate fechaFin,
+        Recurso recurso,
+        Boolean requiereColaboracion
+) {
+
+    public static ActividadIndexadaDTO de(Actividad actividad) {
+        return new ActividadIndexadaDTO(
+                actividad.getId(),
+                actividad.getProyecto().getId(),
+                actividad.getNombre(),
+                actividad.getFechaInicio(),
+                actividad.getFechaFin(),
+                actividad.getRecurso(),
+                actividad.getRequiereColaboracion());
+    }
+}
@@ -0,0 +1,25 @@
+package grupo16.dssd_backend.dtos;
+
+import grupo16.dssd_backend.models.Actividad;
+
+import java.time.LocalDate;
+
+public record ActividadResumenDTO(
+        Long id,
+        String nombre,
+        LocalDate fechaInicio,
+        LocalDate fechaFin,
+        String recurso,
+        boolean requiereColaboracion
+) {
+
+    public static ActividadResumenDTO de(Actividad actividad) {
+        return new ActividadResumenDTO(
+                actividad.getId(),
+                actividad.getNombre(),
+                actividad.getFechaInicio(),
+                actividad.getFechaFin(),
+                actividad.getRecurso() != null ? actividad.getRecurso().name() : null,
+                Boolean.TRUE.equals(actividad.getRequiereColaboracion()));
+    }
+}
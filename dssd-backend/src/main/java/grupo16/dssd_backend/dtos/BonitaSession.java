@@ -1,3 +1,8 @@
 package grupo16.dssd_backend.dtos;
 
-public record BonitaSession(String username, String jsessionId, String xBonitaToken, long createdAtEpochMs) {}
+public record BonitaSession(String username, String jsessionId, String xBonitaToken, long createdAtEpochMs, String userId) {
+
+    public BonitaSession withUserId(String userId) {
+        return new BonitaSession(username, jsessionId, xBonitaToken, createdAtEpochMs, userId);
+    }
+}
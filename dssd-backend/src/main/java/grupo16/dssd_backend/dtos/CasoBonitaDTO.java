@@ -0,0 +1,21 @@
+package grupo16.dssd_backend.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Item de /API/bpm/case o /API/bpm/archivedCase. En los archivados el ID del caso original
+ * viene en sourceObjectId.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CasoBonitaDTO(
+        String id,
+        String sourceObjectId,
+        String state,
+        @JsonProperty("last_update_date") String ultimaActualizacion
+) {
+
+    public String caseId() {
+        return sourceObjectId != null ? sourceObjectId : id;
+    }
+}
@@ -0,0 +1,3 @@
+package grupo16.dssd_backend.dtos;
+
+public record ConteoUbicacionDTO(String ubicacion, Long proyectos) {}
@@ -0,0 +1,3 @@
+package grupo16.dssd_backend.dtos;
+
+public record EstadisticasCacheDTO(long tamanio, long aciertos, long fallos, double tasaAciertos, long desalojos) {}
@@ -0,0 +1,3 @@
+package grupo16.dssd_backend.dtos;
+
+public record EstadisticasPoolDTO(int leased, int pending, int available, int max) {}
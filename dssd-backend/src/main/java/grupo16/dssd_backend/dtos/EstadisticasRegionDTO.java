@@ -0,0 +1,3 @@
+package grupo16.dssd_backend.dtos;
+
+public record EstadisticasRegionDTO(String region, long aciertos, long fallos, long escrituras, double tasaAciertos) {}
@@ -0,0 +1,3 @@
+package grupo16.dssd_backend.dtos;
+
+public record EstadoCreacionDTO(Long id, String estado, Long caseId, int intentos, String ultimoError) {}
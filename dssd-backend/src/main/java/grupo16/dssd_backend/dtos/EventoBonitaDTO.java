@@ -0,0 +1,30 @@
+package grupo16.dssd_backend.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Evento que un conector de Bonita envía al callback. id es el del evento en origen (para
+ * descartar reenvíos); usuario, si viene, limita a quién se le notifica.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record EventoBonitaDTO(
+        String id,
+        String tipo,
+        String caseId,
+        String taskId,
+        String taskName,
+        String state,
+        String usuario
+) {
+
+    public static final String TAREA_READY = "TAREA_READY";
+
+    public boolean validate() {
+        return this.tipo != null && !this.tipo.isBlank() && this.caseId != null && this.caseId.matches("\\d+");
+    }
+
+    /** Clave de deduplicación: el id de origen o, si no vino, el contenido del evento. */
+    public String claveDeduplicacion() {
+        return this.id != null ? this.id : String.join("|", this.tipo, this.caseId, String.valueOf(this.taskId), String.valueOf(this.state));
+    }
+}
@@ -0,0 +1,24 @@
+package grupo16.dssd_backend.dtos;
+
+import grupo16.dssd_backend.models.EstadoProyecto;
+import grupo16.dssd_backend.models.Recurso;
+
+import java.time.LocalDate;
+
+/**
+ * Una actividad con los datos de su proyecto, tal como sale de la consulta de exportación.
+ */
+public record FilaExportacionDTO(
+        Long proyectoId,
+        String proyectoNombre,
+        String descripcion,
+        String ubicacion,
+        Long caseId,
+        EstadoProyecto estado,
+        Long actividadId,
+        String actividadNombre,
+        LocalDate fechaInicio,
+        LocalDate fechaFin,
+        Recurso recurso,
+        Boolean requiereColaboracion
+) {}
@@ -0,0 +1,10 @@
+package grupo16.dssd_backend.dtos;
+
+import grupo16.dssd_backend.models.Recurso;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros de la exportación. Con desde/hasta se exportan las actividades que se solapan con el rango.
+ */
+public record FiltroExportacionDTO(LocalDate desde, LocalDate hasta, Recurso recurso, String ubicacion) {}
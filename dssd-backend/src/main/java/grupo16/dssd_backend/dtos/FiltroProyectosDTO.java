@@ -0,0 +1,5 @@
+package grupo16.dssd_backend.dtos;
+
+import grupo16.dssd_backend.models.Recurso;
+
+public record FiltroProyectosDTO(String ubicacion, String prefijoNombre, Recurso recurso) {}
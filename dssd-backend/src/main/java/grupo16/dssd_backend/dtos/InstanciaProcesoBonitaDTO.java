@@ -0,0 +1,9 @@
+package grupo16.dssd_backend.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Respuesta de /API/bpm/process/{id}/instantiation.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record InstanciaProcesoBonitaDTO(String caseId) {}
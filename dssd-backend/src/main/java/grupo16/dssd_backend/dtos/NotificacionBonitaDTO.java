@@ -0,0 +1,4 @@
+package grupo16.dssd_backend.dtos;
+
+public record NotificacionBonitaDTO(String tipo, String caseId, String taskId, String taskName, String state,
+                                    Long proyectoId, String proyectoNombre) {}
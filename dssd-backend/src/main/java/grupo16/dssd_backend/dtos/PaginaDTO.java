@@ -0,0 +1,8 @@
+package grupo16.dssd_backend.dtos;
+
+import java.util.List;
+
+/**
+ * Página de una consulta con paginación por cursor (keyset): siguienteCursor es null en la última.
+ */
+public record PaginaDTO<T>(List<T> items, Long siguienteCursor) {}
@@ -0,0 +1,35 @@
+package grupo16.dssd_backend.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.Comparator;
+
+/**
+ * Item de /API/bpm/process. Solo se mapean los campos que usamos; el resto se descarta al parsear.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ProcesoBonitaDTO(String id, String name, String version, String deploymentDate) {
+
+    // "1.10" > "1.9": se compara por segmentos numéricos; a igual versión, el despliegue más nuevo
+    public static final Comparator<ProcesoBonitaDTO> POR_VERSION = Comparator
+            .comparing(ProcesoBonitaDTO::version, Comparator.nullsFirst(ProcesoBonitaDTO::compararVersiones))
+            .thenComparing(ProcesoBonitaDTO::deploymentDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    static int compararVersiones(String a, String b) {
+        String[] sa = a.split("[.\\-_]");
+        String[] sb = b.split("[.\\-_]");
+        for (int i = 0; i < Math.max(sa.length, sb.length); i++) {
+            String x = i < sa.length ? sa[i] : "0";
+            String y = i < sb.length ? sb[i] : "0";
+            int c = esNumero(x) && esNumero(y)
+                    ? Long.compare(Long.parseLong(x), Long.parseLong(y))
+                    : x.compareTo(y);
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    private static boolean esNumero(String s) {
+        return !s.isEmpty() && s.length() < 19 && s.chars().allMatch(Character::isDigit);
+    }
+}
@@ -1,6 +1,7 @@
 package grupo16.dssd_backend.dtos;
 
-import java.time.LocalDate;
+import grupo16.dssd_backend.models.Proyecto;
+
 import java.util.List;
 
 public record ProyectoDTO(
@@ -11,6 +12,15 @@ public record ProyectoDTO(
         List<ActividadDTO> actividades
 ) {
 
+    public static ProyectoDTO de(Proyecto proyecto) {
+        return new ProyectoDTO(
+                proyecto.getNombre(),
+                proyecto.getDescripcion(),
+                proyecto.getUbicacion(),
+                proyecto.getCaseId(),
+                proyecto.getActividades().stream().map(ActividadDTO::de).toList());
+    }
+
     public boolean validate(){
         if (nombre == null || nombre.isBlank()) {
             return false;
@@ -0,0 +1,38 @@
+package grupo16.dssd_backend.dtos;
+
+import grupo16.dssd_backend.models.Proyecto;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+public record ProyectoResumenDTO(
+        Long id,
+        String nombre,
+        String descripcion,
+        String ubicacion,
+        Long caseId,
+        String estado,
+        String estadoCaso,
+        String tareaActual,
+        Instant casoActualizado,
+        List<ActividadResumenDTO> actividades
+) {
+
+    public static ProyectoResumenDTO de(Proyecto proyecto) {
+        return new ProyectoResumenDTO(
+                proyecto.getId(),
+                proyecto.getNombre(),
+                proyecto.getDescripcion(),
+                proyecto.getUbicacion(),
+                proyecto.getCaseId(),
+                proyecto.getEstado() != null ? proyecto.getEstado().name() : null,
+                proyecto.getEstadoCaso(),
+                proyecto.getTareaActual(),
+                proyecto.getCasoActualizado(),
+                proyecto.getActividades().stream()
+                        .map(ActividadResumenDTO::de)
+                        .sorted(Comparator.comparing(ActividadResumenDTO::id))
+                        .toList());
+    }
+}
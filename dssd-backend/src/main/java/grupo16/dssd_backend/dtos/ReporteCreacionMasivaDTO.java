@@ -0,0 +1,5 @@
+package grupo16.dssd_backend.dtos;
+
+import java.util.List;
+
+public record ReporteCreacionMasivaDTO(int total, int exitosos, int fallidos, List<ResultadoCreacionDTO> resultados) {}
@@ -0,0 +1,12 @@
+package grupo16.dssd_backend.dtos;
+
+public record ResultadoCreacionDTO(int indice, boolean exito, Long id, Long caseId, String error) {
+
+    public static ResultadoCreacionDTO exito(int indice, Long id, Long caseId) {
+        return new ResultadoCreacionDTO(indice, true, id, caseId, null);
+    }
+
+    public static ResultadoCreacionDTO fallo(int indice, Long caseId, String error) {
+        return new ResultadoCreacionDTO(indice, false, null, caseId, error);
+    }
+}
@@ -0,0 +1,8 @@
+package grupo16.dssd_backend.dtos;
+
+import java.util.Map;
+
+public record ResumenEstadisticasDTO(String periodo,
+                                     Map<String, Long> proyectosPorUbicacion,
+                                     Map<String, Long> actividadesPorRecurso,
+                                     Map<String, Long> colaboracionesAbiertasPorRecurso) {}
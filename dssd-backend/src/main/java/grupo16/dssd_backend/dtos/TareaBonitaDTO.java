@@ -0,0 +1,15 @@
+package grupo16.dssd_backend.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Item de /API/bpm/humanTask: la tarea, el caso al que pertenece y lo que usa la reconciliación.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TareaBonitaDTO(
+        String id,
+        String caseId,
+        String name,
+        @JsonProperty("last_update_date") String ultimaActualizacion
+) {}
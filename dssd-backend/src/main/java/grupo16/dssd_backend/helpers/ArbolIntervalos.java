@@ -0,0 +1,158 @@
+package grupo16.dssd_backend.helpers;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Árbol de intervalos: AVL ordenado por (inicio, id) y aumentado con el fin máximo de cada
+ * subárbol. Insertar y eliminar son O(log n); buscar los intervalos que se solapan con
+ * [desde, hasta] es O(log n + k), porque se podan los subárboles cuyo fin máximo es anterior
+ * a desde y, a la derecha, los que empiezan después de hasta.
+ * <p>
+ * Los extremos son inclusivos. No es thread-safe: quien lo use debe sincronizar.
+ */
+public final class ArbolIntervalos<T> {
+
+    private static final class Nodo<T> {
+        private final long inicio;
+        private final long fin;
+        private final long id;
+        private final T valor;
+        private long maxFin;
+        private int altura = 1;
+        private Nodo<T> izq;
+        private Nodo<T> der;
+
+        private Nodo(long inicio, long fin, long id, T valor) {
+            this.inicio = inicio;
+            this.fin = fin;
+            this.id = id;
+            this.valor = valor;
+            this.maxFin = fin;
+        }
+    }
+
+    private Nodo<T> raiz;
+    private int tamanio;
+
+    public int tamanio() {
+        return this.tamanio;
+    }
+
+    public void insertar(long inicio, long fin, long id, T valor) {
+        if (fin < inicio) throw new IllegalArgumentException("Intervalo invertido: [" + inicio + ", " + fin + "]");
+        this.raiz = insertar(this.raiz, new Nodo<>(inicio, fin, id, valor));
+        this.tamanio++;
+    }
+
+    /**
+     * Elimina el intervalo con ese inicio e id. Devuelve false si no estaba.
+     */
+    public boolean eliminar(long inicio, long id) {
+        int antes = this.tamanio;
+        this.raiz = eliminar(this.raiz, inicio, id);
+        return this.tamanio < antes;
+    }
+
+    /**
+     * Agrega a resultado, en orden de inicio, los valores cuyo intervalo se solapa con
+     * [desde, hasta] y cumplen el filtro, hasta juntar limite.
+     */
+    public void solapados(long desde, long hasta, Predicate<? super T> filtro, List<T> resultado, int limite) {
+        buscar(this.raiz, desde, hasta, filtro, resultado, limite);
+    }
+
+    private static <T> void buscar(Nodo<T> n, long desde, long hasta, Predicate<? super T> filtro,
+                                   List<T> resultado, int limite) {
+        if (n == null || n.maxFin < desde || resultado.size() >= limite) return;
+        buscar(n.izq, desde, hasta, filtro, resultado, limite);
+        if (n.inicio > hasta) return;
+        if (n.fin >= desde && resultado.size() < limite && filtro.test(n.valor)) {
+            resultado.add(n.valor);
+        }
+        buscar(n.der, desde, hasta, filtro, resultado, limite);
+    }
+
+    private static int comparar(long inicio, long id, Nodo<?> n) {
+        int c = Long.compare(inicio, n.inicio);
+        return c != 0 ? c : Long.compare(id, n.id);
+    }
+
+    private static <T> Nodo<T> insertar(Nodo<T> n, Nodo<T> nuevo) {
+        if (n == null) return nuevo;
+        if (comparar(nuevo.inicio, nuevo.id, n) < 0) n.izq = insertar(n.izq, nuevo);
+        else n.der = insertar(n.der, nuevo);
+        return balancear(n);
+    }
+
+    private Nodo<T> eliminar(Nodo<T> n, long inicio, long id) {
+        if (n == null) return null;
+        int c = comparar(inicio, id, n);
+        if (c < 0) {
+            n.izq = eliminar(n.izq, inicio, id);
+        } else if (c > 0) {
+            n.der = eliminar(n.der, inicio, id);
+        } else {
+            this.tamanio--;
+            if (n.izq == null) return n.der;
+            if (n.der == null) return n.izq;
+            // reemplazamos por el sucesor (mínimo del subárbol derecho)
+            Nodo<T> sucesor = n.der;
+            while (sucesor.izq != null) sucesor = sucesor.izq;
+            sucesor.der = quitarMinimo(n.der);
+            sucesor.izq = n.izq;
+            return balancear(sucesor);
+        }
+        return balancear(n);
+    }
+
+    private static <T> Nodo<T> quitarMinimo(Nodo<T> n) {
+        if (n.izq == null) return n.der;
+        n.izq = quitarMinimo(n.izq);
+        return balancear(n);
+    }
+
+    private static int altura(Nodo<?> n) {
+        return n == null ? 0 : n.altura;
+    }
+
+    private static <T> void actualizar(Nodo<T> n) {
+        n.altura = 1 + Math.max(altura(n.izq), altura(n.der));
+        long max = n.fin;
+        if (n.izq != null) max = Math.max(max, n.izq.maxFin);
+        if (n.der != null) max = Math.max(max, n.der.maxFin);
+        n.maxFin = max;
+    }
+
+    private static <T> Nodo<T> balancear(Nodo<T> n) {
+        actualizar(n);
+        int factor = altura(n.izq) - altura(n.der);
+        if (factor > 1) {
+            if (altura(n.izq.izq) < altura(n.izq.der)) n.izq = rotarIzquierda(n.izq);
+            return rotarDerecha(n);
+        }
+        if (factor < -1) {
+            if (altura(n.der.der) < altura(n.der.izq)) n.der = rotarDerecha(n.der);
+            return rotarIzquierda(n);
+        }
+        return n;
+    }
+
+    private static <T> Nodo<T> rotarDerecha(Nodo<T> n) {
+        Nodo<T> x = n.izq;
+        n.izq = x.der;
+        x.der = n;
+        actualizar(n);
+        actualizar(x);
+        return x;
+    }
+
+    private static <T> Nodo<T> rotarIzquierda(Nodo<T> n) {
+        Nodo<T> x = n.der;
+        n.der = x.izq;
+        x.izq = n;
+        actualizar(n);
+        actualizar(x);
+        return x;
+    }
+}
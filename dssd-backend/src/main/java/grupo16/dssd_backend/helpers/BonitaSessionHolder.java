@@ -5,14 +5,53 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.function.Supplier;
+
 @Component
 public class BonitaSessionHolder {
 
+    // Sesión explícita para hilos sin request (workers, tareas en background)
+    private static final ThreadLocal<BonitaSession> SESION_ACTUAL = new ThreadLocal<>();
+
     public static BonitaSession getBonitaSession() {
+        var actual = SESION_ACTUAL.get();
+        if (actual != null) return actual;
+
         var attrs = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
         var session = attrs.getRequest().getSession(false);
         if (session == null) throw new IllegalStateException("Sin sesión");
         var bs = (BonitaSession) session.getAttribute("bonitaSession");
         return bs;
     }
+
+    /**
+     * Guarda en la sesión HTTP la sesión Bonita renovada por GestorSesionesBonita: las
+     * credenciales para renovar solo están en memoria de esta réplica, así otra réplica que
+     * atienda el próximo request usa el token nuevo. Solo en hilos de request sin sesión explícita.
+     */
+    public static void actualizar(BonitaSession renovada) {
+        if (SESION_ACTUAL.get() != null) return;
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs)) return;
+        var session = attrs.getRequest().getSession(false);
+        if (session == null) return;
+        if (session.getAttribute("bonitaSession") instanceof BonitaSession bs
+                && bs.username().equals(renovada.username())
+                && !bs.xBonitaToken().equals(renovada.xBonitaToken())) {
+            session.setAttribute("bonitaSession", renovada);
+        }
+    }
+
+    /**
+     * Ejecuta la tarea usando la sesión Bonita indicada en el hilo actual.
+     */
+    public static <T> T ejecutarCon(BonitaSession bonitaSession, Supplier<T> tarea) {
+        var anterior = SESION_ACTUAL.get();
+        SESION_ACTUAL.set(bonitaSession);
+        try {
+            return tarea.get();
+        } finally {
+            if (anterior == null) SESION_ACTUAL.remove();
+            else SESION_ACTUAL.set(anterior);
+        }
+    }
 }
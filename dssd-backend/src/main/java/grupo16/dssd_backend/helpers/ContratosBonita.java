@@ -0,0 +1,64 @@
+package grupo16.dssd_backend.helpers;
+
+import grupo16.dssd_backend.dtos.ActividadDTO;
+import grupo16.dssd_backend.dtos.ProyectoDTO;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arma los contratos del proceso de creación de proyecto a partir de un {@link ProyectoDTO}.
+ * <p>
+ * Los contratos del proceso desplegado (bonita/ProjectPlanning.bos) están vacíos y Bonita
+ * ignora los inputs que no declara: descripción, ubicación y actividades se guardan solo en
+ * nuestra base, que es la fuente de verdad. Los inputs se envían igual para que declarar los
+ * contratos en el .bos no requiera cambios acá. Lo que el proceso sí usa hoy ({@code nombre})
+ * va por PUT de variable de caso.
+ */
+public class ContratosBonita {
+
+    private ContratosBonita() {
+    }
+
+    /**
+     * Contrato de /API/bpm/process/{id}/instantiation (sin inputs declarados en el proceso actual).
+     */
+    public static Map<String, Object> instanciacion(ProyectoDTO proyecto) {
+        Map<String, Object> contrato = new LinkedHashMap<>();
+        contrato.put("nombre", proyecto.nombre());
+        contrato.put("descripcion", proyecto.descripcion());
+        contrato.put("ubicacion", proyecto.ubicacion());
+        return contrato;
+    }
+
+    /**
+     * Contrato de /API/bpm/userTask/{id}/execution de la primera tarea: el plan completo
+     * (sin inputs declarados en el proceso actual).
+     */
+    public static Map<String, Object> ejecucionTarea(ProyectoDTO proyecto) {
+        List<ActividadDTO> actividades = proyecto.actividades() == null ? List.of() : proyecto.actividades();
+        return Map.of("actividades", actividades.stream().map(ContratosBonita::actividad).toList());
+    }
+
+    /**
+     * Variables de caso que el proceso define y no llegan por contrato; cada una es un PUT
+     * independiente. Hay que mantenerla mientras los contratos del .bos sigan vacíos.
+     */
+    public static Map<String, Object> variablesCaso(ProyectoDTO proyecto) {
+        return Map.of("nombre", proyecto.nombre());
+    }
+
+    private static Map<String, Object> actividad(ActividadDTO actividad) {
+        // HashMap: algunos campos pueden ser null y Map.of no los admite
+        Map<String, Object> input = new HashMap<>();
+        input.put("nombre", actividad.nombre());
+        // Bonita espera LOCALDATE como yyyy-MM-dd
+        input.put("fechaInicio", actividad.fechaInicio() != null ? actividad.fechaInicio().toString() : null);
+        input.put("fechaFin", actividad.fechaFin() != null ? actividad.fechaFin().toString() : null);
+        input.put("recurso", actividad.recurso());
+        input.put("requiereColaboracion", actividad.requiereColaboracion());
+        return input;
+    }
+}
@@ -0,0 +1,36 @@
+package grupo16.dssd_backend.helpers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin locks sobre un único AtomicLong (GCRA): se guarda el instante en que la
+ * cubeta vuelve a estar llena y cada admisión lo corre un intervalo con un CAS.
+ * Equivale a una cubeta de capacidad tokens que recupera uno por intervalo.
+ */
+public final class CubetaTokens {
+
+    private final AtomicLong llenaEn = new AtomicLong(Long.MIN_VALUE);
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+
+    public CubetaTokens(int capacidad, long intervaloNanos) {
+        if (capacidad < 1 || intervaloNanos < 1) {
+            throw new IllegalArgumentException("Capacidad e intervalo tienen que ser positivos");
+        }
+        this.intervaloNanos = intervaloNanos;
+        this.toleranciaNanos = capacidad * intervaloNanos;
+    }
+
+    /**
+     * Intenta tomar un token. Devuelve 0 si se admitió; si no, los nanos hasta que haya uno.
+     */
+    public long tomar(long ahoraNanos) {
+        while (true) {
+            long actual = this.llenaEn.get();
+            long nueva = Math.max(actual, ahoraNanos) + this.intervaloNanos;
+            long exceso = nueva - ahoraNanos - this.toleranciaNanos;
+            if (exceso > 0) return exceso;
+            if (this.llenaEn.compareAndSet(actual, nueva)) return 0;
+        }
+    }
+}
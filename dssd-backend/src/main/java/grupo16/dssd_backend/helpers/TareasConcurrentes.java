@@ -0,0 +1,69 @@
+package grupo16.dssd_backend.helpers;
+
+import grupo16.dssd_backend.dtos.BonitaSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Ejecución concurrente de pasos independientes con cancelación estructurada:
+ * si una tarea falla se interrumpen las demás y se relanza el error original.
+ * La sesión Bonita del hilo que invoca se propaga a cada tarea.
+ */
+public class TareasConcurrentes {
+
+    public record Par<A, B>(A primero, B segundo) {}
+
+    private TareasConcurrentes() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A, B> Par<A, B> enParalelo(ExecutorService executor, Supplier<A> primera, Supplier<B> segunda) {
+        List<Object> resultados = invocarTodas(executor, List.of(primera, segunda));
+        return new Par<>((A) resultados.get(0), (B) resultados.get(1));
+    }
+
+    public static void ejecutarEnParalelo(ExecutorService executor, Runnable primera, Runnable segunda) {
+        invocarTodas(executor, List.of(() -> { primera.run(); return null; }, () -> { segunda.run(); return null; }));
+    }
+
+    public static void ejecutarTodas(ExecutorService executor, List<Runnable> tareas) {
+        if (tareas.size() == 1) {
+            // una sola: no vale la pena el salto de hilo
+            tareas.get(0).run();
+            return;
+        }
+        invocarTodas(executor, tareas.stream().<Supplier<?>>map(t -> () -> { t.run(); return null; }).toList());
+    }
+
+    private static List<Object> invocarTodas(ExecutorService executor, List<Supplier<?>> tareas) {
+        BonitaSession bonitaSession = BonitaSessionHolder.getBonitaSession();
+        ExecutorCompletionService<Object> completadas = new ExecutorCompletionService<>(executor);
+        List<Future<Object>> futuros = new ArrayList<>(tareas.size());
+        try {
+            for (Supplier<?> tarea : tareas) {
+                futuros.add(completadas.submit(() -> BonitaSessionHolder.ejecutarCon(bonitaSession, tarea)));
+            }
+            // Esperamos en orden de finalización para enterarnos del primer fallo cuanto antes
+            for (int i = 0; i < tareas.size(); i++) {
+                completadas.take().get();
+            }
+            List<Object> resultados = new ArrayList<>(futuros.size());
+            for (Future<Object> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando tareas concurrentes", e);
+        } finally {
+            // no-op para las terminadas; interrumpe las que sigan corriendo tras un fallo
+            futuros.forEach(f -> f.cancel(true));
+        }
+    }
+}
@@ -2,14 +2,23 @@ package grupo16.dssd_backend.models;
 
 import grupo16.dssd_backend.dtos.ActividadDTO;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        // solapamiento por recurso: igualdad primero, después el rango de fechas
+        @Index(name = "ix_actividad_recurso_fechas", columnList = "recurso, fechaInicio, fechaFin"),
+        @Index(name = "ix_actividad_fechas", columnList = "fechaInicio, fechaFin")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "actividades")
 public class Actividad {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "actividad_seq")
+    @SequenceGenerator(name = "actividad_seq", sequenceName = "actividad_seq", allocationSize = 50)
     private Long id;
 
     private String nombre;
@@ -40,6 +49,14 @@ public class Actividad {
         this.proyecto = proyecto;
     }
 
+    public Long getId() {
+        return id;
+    }
+
+    public Proyecto getProyecto() {
+        return proyecto;
+    }
+
     public String getNombre() {
         return nombre;
     }
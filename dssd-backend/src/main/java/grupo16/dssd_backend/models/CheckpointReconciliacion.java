@@ -0,0 +1,69 @@
+package grupo16.dssd_backend.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.time.Instant;
+
+/**
+ * Hasta dónde se reconcilió una fuente de Bonita (casos activos, archivados o tareas).
+ * <p>
+ * marca es el last_update_date más nuevo ya aplicado. Si una corrida no llega a la marca por
+ * el tope de páginas, guarda en paginaPendiente dónde seguir y en marcaPendiente lo más nuevo
+ * visto; la marca solo avanza cuando se alcanza.
+ */
+@Entity
+public class CheckpointReconciliacion {
+
+    @Id
+    private String fuente;
+
+    private String marca;
+
+    private String marcaPendiente;
+
+    private int paginaPendiente;
+
+    private Instant actualizado;
+
+    public CheckpointReconciliacion() {
+
+    }
+
+    public CheckpointReconciliacion(String fuente) {
+        this.fuente = fuente;
+    }
+
+    public String getFuente() {
+        return fuente;
+    }
+
+    public String getMarca() {
+        return marca;
+    }
+
+    public String getMarcaPendiente() {
+        return marcaPendiente;
+    }
+
+    public int getPaginaPendiente() {
+        return paginaPendiente;
+    }
+
+    public Instant getActualizado() {
+        return actualizado;
+    }
+
+    public void completar(String marca) {
+        this.marca = marca;
+        this.marcaPendiente = null;
+        this.paginaPendiente = 0;
+        this.actualizado = Instant.now();
+    }
+
+    public void continuarDesde(int pagina, String marcaPendiente) {
+        this.paginaPendiente = pagina;
+        this.marcaPendiente = marcaPendiente;
+        this.actualizado = Instant.now();
+    }
+}
@@ -0,0 +1,31 @@
+package grupo16.dssd_backend.models;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Fila del resumen: dimensión, valor agrupado (ubicación o recurso) y período (yyyy-MM de la
+ * fecha de inicio de la actividad, o "total").
+ */
+@Embeddable
+public record ClaveResumen(@Enumerated(EnumType.STRING) DimensionResumen dimension, String clave, String periodo) {
+
+    public static final String TOTAL = "total";
+    public static final String SIN_DATO = "sin-dato";
+
+    public static String claveDe(Object valor) {
+        return valor == null ? SIN_DATO : valor.toString();
+    }
+
+    public static String periodoDe(LocalDate fecha) {
+        return fecha == null ? SIN_DATO : YearMonth.from(fecha).toString();
+    }
+
+    public static String periodoDe(Integer anio, Integer mes) {
+        return anio == null || mes == null ? SIN_DATO : YearMonth.of(anio, mes).toString();
+    }
+}
@@ -0,0 +1,7 @@
+package grupo16.dssd_backend.models;
+
+public enum DimensionResumen {
+    PROYECTOS_UBICACION,
+    ACTIVIDADES_RECURSO,
+    COLABORACIONES_RECURSO
+}
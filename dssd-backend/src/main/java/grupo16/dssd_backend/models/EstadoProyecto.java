@@ -0,0 +1,7 @@
+package grupo16.dssd_backend.models;
+
+public enum EstadoProyecto {
+    PENDIENTE,
+    CREADO,
+    ERROR
+}
@@ -0,0 +1,127 @@
+package grupo16.dssd_backend.models;
+
+import grupo16.dssd_backend.dtos.BonitaSession;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Fila de outbox: un proyecto ya persistido cuyo caso en Bonita todavía no se inició.
+ * Guarda solo quién lo creó (usuario e ID en Bonita, para asignarle la tarea); el caso se
+ * inicia con la cuenta de servicio, nunca con tokens de sesión persistidos.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_estado_proximo", columnList = "estado, proximoIntento"))
+public class OutboxCreacionProyecto {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_creacion_proyecto_seq")
+    @SequenceGenerator(name = "outbox_creacion_proyecto_seq", sequenceName = "outbox_creacion_proyecto_seq", allocationSize = 50)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "proyecto_id", nullable = false, unique = true)
+    private Proyecto proyecto;
+
+    @Enumerated(EnumType.STRING)
+    private EstadoOutbox estado;
+
+    private int intentos;
+
+    private Instant proximoIntento;
+
+    @Column(length = 1000)
+    private String ultimoError;
+
+    private String username;
+
+    private String bonitaUserId;
+
+    private Instant creado;
+
+    // caso ya instanciado en Bonita: los reintentos siguen desde la tarea, no instancian otro
+    private Long caseId;
+
+    // se marca antes del POST de instanciación; sin caseId indica que no se sabe si el caso existe
+    private boolean instanciacionIniciada;
+
+    public OutboxCreacionProyecto() {
+
+    }
+
+    public OutboxCreacionProyecto(Proyecto proyecto, BonitaSession bonitaSession) {
+        this.proyecto = proyecto;
+        this.estado = EstadoOutbox.PENDIENTE;
+        this.intentos = 0;
+        this.creado = Instant.now();
+        this.proximoIntento = this.creado;
+        this.username = bonitaSession.username();
+        this.bonitaUserId = bonitaSession.userId();
+    }
+
+    public void reclamar(Instant vencimiento) {
+        this.estado = EstadoOutbox.PROCESANDO;
+        this.proximoIntento = vencimiento;
+    }
+
+    public void iniciarInstanciacion() {
+        this.instanciacionIniciada = true;
+    }
+
+    // Bonita respondió con error a la instanciación: no hay caso, se puede volver a instanciar
+    public void cancelarInstanciacion() {
+        this.instanciacionIniciada = false;
+    }
+
+    public void registrarCaso(Long caseId) {
+        this.caseId = caseId;
+        this.proyecto.setCaseId(caseId);
+    }
+
+    public void registrarFallo(String error, Instant proximoIntento, boolean definitivo) {
+        this.intentos++;
+        this.ultimoError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        this.estado = definitivo ? EstadoOutbox.FALLIDO : EstadoOutbox.PENDIENTE;
+        this.proximoIntento = proximoIntento;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getBonitaUserId() {
+        return bonitaUserId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Proyecto getProyecto() {
+        return proyecto;
+    }
+
+    public EstadoOutbox getEstado() {
+        return estado;
+    }
+
+    public int getIntentos() {
+        return intentos;
+    }
+
+    public Instant getProximoIntento() {
+        return proximoIntento;
+    }
+
+    public String getUltimoError() {
+        return ultimoError;
+    }
+
+    public Long getCaseId() {
+        return caseId;
+    }
+
+    public boolean isInstanciacionIniciada() {
+        return instanciacionIniciada;
+    }
+}
@@ -3,15 +3,21 @@ package grupo16.dssd_backend.models;
 import grupo16.dssd_backend.dtos.ActividadDTO;
 import grupo16.dssd_backend.dtos.ProyectoDTO;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "ux_proyecto_case_id", columnList = "caseId", unique = true))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proyectos")
 public class Proyecto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "proyecto_seq")
+    @SequenceGenerator(name = "proyecto_seq", sequenceName = "proyecto_seq", allocationSize = 50)
     private Long id;
 
     private String nombre;
@@ -22,7 +28,20 @@ public class Proyecto {
 
     private String ubicacion;
 
+    @Enumerated(EnumType.STRING)
+    private EstadoProyecto estado;
+
+    // Modelo de lectura del caso, lo completa ReconciliadorCasosBonita: las vistas de estado no consultan a Bonita
+    private String estadoCaso;
+
+    private String tareaActual;
+
+    private Instant casoActualizado;
+
+    private Instant tareaActualizada;
+
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "proyecto", orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proyectos.actividades")
     private List<Actividad> actividades;
 
     public Proyecto(){
@@ -37,6 +56,10 @@ public class Proyecto {
         this.actividades = proyectoDTO.actividades().stream().map(actDTO -> new Actividad(actDTO, this)).toList();
     }
 
+    public Long getId() {
+        return id;
+    }
+
     public String getNombre() {
         return nombre;
     }
@@ -64,4 +87,28 @@ public class Proyecto {
     public void setCaseId(Long caseId) {
         this.caseId = caseId;
     }
+
+    public EstadoProyecto getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoProyecto estado) {
+        this.estado = estado;
+    }
+
+    public String getEstadoCaso() {
+        return estadoCaso;
+    }
+
+    public String getTareaActual() {
+        return tareaActual;
+    }
+
+    public Instant getCasoActualizado() {
+        return casoActualizado;
+    }
+
+    public Instant getTareaActualizada() {
+        return tareaActualizada;
+    }
 }
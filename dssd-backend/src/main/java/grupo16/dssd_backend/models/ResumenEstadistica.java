@@ -0,0 +1,29 @@
+package grupo16.dssd_backend.models;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+
+/**
+ * Contador precalculado para los tableros. Lo mantiene EstadisticasService con cada proyecto
+ * guardado y lo verifica periódicamente contra un recálculo completo.
+ */
+@Entity
+public class ResumenEstadistica {
+
+    @EmbeddedId
+    private ClaveResumen clave;
+
+    private long cantidad;
+
+    public ResumenEstadistica() {
+
+    }
+
+    public ClaveResumen getClave() {
+        return clave;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+}
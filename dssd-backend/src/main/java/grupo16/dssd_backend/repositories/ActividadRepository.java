@@ -1,9 +1,54 @@
 package grupo16.dssd_backend.repositories;
 
+import grupo16.dssd_backend.dtos.ActividadIndexadaDTO;
+import grupo16.dssd_backend.dtos.ConteoActividadesDTO;
 import grupo16.dssd_backend.models.Actividad;
+import grupo16.dssd_backend.models.Recurso;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface ActividadRepository extends JpaRepository<Actividad, Long> {
+
+    // Carga inicial del índice en memoria: proyección sin entidades, leída con cursor
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new grupo16.dssd_backend.dtos.ActividadIndexadaDTO(
+                a.id, a.proyecto.id, a.nombre, a.fechaInicio, a.fechaFin, a.recurso, a.requiereColaboracion)
+            from Actividad a
+            where a.fechaInicio is not null and a.fechaFin is not null and a.recurso is not null
+            """)
+    Stream<ActividadIndexadaDTO> streamIndexables();
+
+    // Camino en frío (índice en memoria todavía sin cargar): usa ix_actividad_recurso_fechas
+    @Query("""
+            select new grupo16.dssd_backend.dtos.ActividadIndexadaDTO(
+                a.id, a.proyecto.id, a.nombre, a.fechaInicio, a.fechaFin, a.recurso, a.requiereColaboracion)
+            from Actividad a
+            where (:recurso is null or a.recurso = :recurso)
+              and a.fechaInicio <= :hasta and a.fechaFin >= :desde
+              and (:colaboracion is null or a.requiereColaboracion = :colaboracion)
+            order by a.fechaInicio, a.id
+            """)
+    List<ActividadIndexadaDTO> buscarSolapadas(Recurso recurso, LocalDate desde, LocalDate hasta,
+                                               Boolean colaboracion, Limit limit);
+
+    // Recálculo completo del resumen de tableros, por recurso y mes de inicio
+    @Query("""
+            select new grupo16.dssd_backend.dtos.ConteoActividadesDTO(
+                a.recurso, year(a.fechaInicio), month(a.fechaInicio), count(a),
+                sum(case when a.requiereColaboracion = true then 1L else 0L end))
+            from Actividad a
+            group by a.recurso, year(a.fechaInicio), month(a.fechaInicio)
+            """)
+    List<ConteoActividadesDTO> contarPorRecursoYMes();
 }
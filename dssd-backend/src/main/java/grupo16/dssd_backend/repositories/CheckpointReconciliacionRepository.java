@@ -0,0 +1,9 @@
+package grupo16.dssd_backend.repositories;
+
+import grupo16.dssd_backend.models.CheckpointReconciliacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CheckpointReconciliacionRepository extends JpaRepository<CheckpointReconciliacion, String> {
+}
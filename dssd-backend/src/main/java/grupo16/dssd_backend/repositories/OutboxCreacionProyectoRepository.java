@@ -0,0 +1,29 @@
+package grupo16.dssd_backend.repositories;
+
+import grupo16.dssd_backend.models.EstadoOutbox;
+import grupo16.dssd_backend.models.OutboxCreacionProyecto;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxCreacionProyectoRepository extends JpaRepository<OutboxCreacionProyecto, Long> {
+
+    // timeout -2 = SKIP LOCKED: varias instancias pueden drenar la misma tabla sin pisarse
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from OutboxCreacionProyecto o where o.estado in :estados and o.proximoIntento <= :ahora order by o.proximoIntento")
+    List<OutboxCreacionProyecto> buscarVencidos(Collection<EstadoOutbox> estados, Instant ahora, Pageable pageable);
+
+    Optional<OutboxCreacionProyecto> findByProyectoId(Long proyectoId);
+}
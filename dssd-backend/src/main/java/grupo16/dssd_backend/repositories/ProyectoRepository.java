@@ -1,9 +1,52 @@
 package grupo16.dssd_backend.repositories;
 
+import grupo16.dssd_backend.dtos.ConteoUbicacionDTO;
 import grupo16.dssd_backend.models.Proyecto;
+import grupo16.dssd_backend.models.Recurso;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ProyectoRepository extends JpaRepository<Proyecto, Long> {
+
+    // Paginación keyset: "id > cursor" sobre la PK en lugar de OFFSET, costo constante por página
+    @Query("""
+            select p.id from Proyecto p
+            where (:cursor is null or p.id > :cursor)
+              and (:ubicacion is null or p.ubicacion = :ubicacion)
+              and (:prefijo is null or p.nombre like concat(:prefijo, '%') escape '!')
+              and (:recurso is null or exists (
+                    select 1 from Actividad a where a.proyecto = p and a.recurso = :recurso))
+            order by p.id
+            """)
+    List<Long> buscarIdsPagina(Long cursor, String ubicacion, String prefijo, Recurso recurso, Limit limit);
+
+    // Proyectos de una página con sus actividades en una sola consulta (sin N+1)
+    @EntityGraph(attributePaths = "actividades")
+    List<Proyecto> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "actividades")
+    Optional<Proyecto> findWithActividadesById(Long id);
+
+    // Lookup por caseId (índice único) con cache de consultas: los callbacks de Bonita
+    // y la reconciliación se resuelven desde el cache de segundo nivel
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Proyecto> findByCaseId(Long caseId);
+
+    // Recálculo completo del resumen de tableros (solo para verificarlo, no por request)
+    @Query("select new grupo16.dssd_backend.dtos.ConteoUbicacionDTO(p.ubicacion, count(p)) from Proyecto p group by p.ubicacion")
+    List<ConteoUbicacionDTO> contarPorUbicacion();
+
+    // Emisor de eventos local: el último proyecto con caso en Bonita
+    Optional<Proyecto> findFirstByCaseIdNotNullOrderByIdDesc();
 }
@@ -0,0 +1,15 @@
+package grupo16.dssd_backend.repositories;
+
+import grupo16.dssd_backend.models.ClaveResumen;
+import grupo16.dssd_backend.models.ResumenEstadistica;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResumenEstadisticaRepository extends JpaRepository<ResumenEstadistica, ClaveResumen> {
+
+    List<ResumenEstadistica> findByClavePeriodoIn(Collection<String> periodos);
+}
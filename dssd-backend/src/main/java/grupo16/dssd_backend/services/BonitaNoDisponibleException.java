@@ -0,0 +1,11 @@
+package grupo16.dssd_backend.services;
+
+/**
+ * Bonita rechazada del lado nuestro sin llegar a llamarla: circuito abierto o bulkhead lleno.
+ */
+public class BonitaNoDisponibleException extends RuntimeException {
+
+    public BonitaNoDisponibleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,43 +1,106 @@
 package grupo16.dssd_backend.services;
 
 import grupo16.dssd_backend.dtos.BonitaSession;
+import grupo16.dssd_backend.dtos.CasoBonitaDTO;
+import grupo16.dssd_backend.dtos.EstadisticasCacheDTO;
+import grupo16.dssd_backend.dtos.EstadisticasPoolDTO;
+import grupo16.dssd_backend.dtos.InstanciaProcesoBonitaDTO;
+import grupo16.dssd_backend.dtos.ProcesoBonitaDTO;
+import grupo16.dssd_backend.dtos.ProyectoDTO;
+import grupo16.dssd_backend.dtos.TareaBonitaDTO;
+import grupo16.dssd_backend.dtos.UsuarioBonitaDTO;
 import grupo16.dssd_backend.helpers.BonitaSessionHolder;
+import grupo16.dssd_backend.helpers.ContratosBonita;
 import grupo16.dssd_backend.helpers.NombresProcesos;
+import grupo16.dssd_backend.helpers.TareasConcurrentes;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
 
 import java.net.HttpCookie;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
 @Service
 class BonitaService implements I_BonitaService{
 
     private final RestClient client;
+    private final CacheProcesosBonita cacheProcesos;
+    private final CacheUsuariosBonita cacheUsuarios;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final ExecutorService bonitaExecutor;
+    private final GestorSesionesBonita sesiones;
+    private final EsperaTareasBonita esperaTareas;
+    private final int tamanioPaginaTareas;
+    private final MetricasBonita metricas;
+    private final ProteccionBonita proteccion;
     private static final Logger logger = LoggerFactory.getLogger(BonitaService.class);
 
-    public BonitaService(@Value("${external.service.url}/bonita") String baseUrl) {
+    // Respuestas tipadas: Jackson descarta los campos que no mapeamos sin armar mapas intermedios.
+    // Bonita no permite proyectar campos, así que se acota con "c" y sin parámetros "d" (deploy).
+    private static final ParameterizedTypeReference<List<ProcesoBonitaDTO>> LISTA_PROCESOS = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<TareaBonitaDTO>> LISTA_TAREAS = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<CasoBonitaDTO>> LISTA_CASOS = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<UsuarioBonitaDTO>> LISTA_USUARIOS = new ParameterizedTypeReference<>() {};
+
+    // sesión que withAuth puso en la última request de este hilo, para renovar exactamente esa ante un 401
+    private static final ThreadLocal<BonitaSession> SESION_ENVIADA = new ThreadLocal<>();
+
+    public BonitaService(@Value("${external.service.url}/bonita") String baseUrl,
+                         ClientHttpRequestFactory bonitaRequestFactory,
+                         PoolingHttpClientConnectionManager bonitaConnectionManager,
+                         CacheProcesosBonita cacheProcesos, CacheUsuariosBonita cacheUsuarios,
+                         @Qualifier("bonitaExecutor") ExecutorService bonitaExecutor,
+                         GestorSesionesBonita sesiones,
+                         EsperaTareasBonita esperaTareas,
+                         @Value("${bonita.espera-tareas.tamanio-pagina:200}") int tamanioPaginaTareas,
+                         MetricasBonita metricas,
+                         ProteccionBonita proteccion) {
+        this.metricas = metricas;
+        this.proteccion = proteccion;
+        this.bonitaExecutor = bonitaExecutor;
+        this.sesiones = sesiones;
+        this.esperaTareas = esperaTareas;
+        this.tamanioPaginaTareas = tamanioPaginaTareas;
+        this.cacheProcesos = cacheProcesos;
+        this.cacheUsuarios = cacheUsuarios;
+        this.connectionManager = bonitaConnectionManager;
         this.client = RestClient.builder()
                 .baseUrl(baseUrl)
+                .requestFactory(bonitaRequestFactory)
                 .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
                 .build();
     }
 
     @Override
     public BonitaSession loginAndReturnCookies(String username, String password) {
+        // Sesión compartida por usuario: solo se hace login si no hay una vigente
+        return this.sesiones.abrir(username, password, this::loginBonita, this::logoutBonita);
+    }
+
+    private BonitaSession loginBonita(String username, String password) {
         MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
         form.add("username", username);
         form.add("password", password);
         form.add("redirect", "false");
 
-        return client.post()
+        BonitaSession session = this.llamar("login", "/loginservice", () -> client.post()
             .uri("/loginservice")
             .contentType(MediaType.APPLICATION_FORM_URLENCODED)
             .body(form)
@@ -58,58 +121,209 @@ class BonitaService implements I_BonitaService{
                             "Login Bonita: faltan cookies JSESSIONID/X-Bonita-API-Token.");
                 }
 
-                return new BonitaSession(username, js, xt, System.currentTimeMillis());
-            });
+                return new BonitaSession(username, js, xt, System.currentTimeMillis(), null);
+            }));
+
+        // Resolvemos el ID de usuario una sola vez y lo guardamos con la sesión
+        try {
+            return session.withUserId(this.resolverUserId(session).orElse(null));
+        } catch (RuntimeException e) {
+            // no impide el login: se resuelve de forma lazy en el primer uso
+            logger.warn("No se pudo resolver el ID de usuario de {} al iniciar sesión", username, e);
+            return session;
+        }
     }
 
     @Override
     public void logout(BonitaSession session) {
+        this.cacheUsuarios.desalojar(session.username());
+        // solo se cierra en Bonita cuando se va la última sesión que la compartía
+        this.sesiones.cerrar(session.username()).ifPresent(this::logoutBonita);
+    }
 
+    private void logoutBonita(BonitaSession session) {
+        try {
+            this.llamar("logout", "/logoutservice", () -> client.get()
+                .uri(uriBuilder -> uriBuilder
+                    .path("/logoutservice")
+                    .queryParam("redirect", "false")
+                    .build())
+                .headers(headers -> agregarCookies(headers, session))
+                .retrieve()
+                .toBodilessEntity());
+        } catch (RestClientException | BonitaNoDisponibleException e) {
+            logger.warn("No se pudo cerrar la sesión Bonita de {}", session.username(), e);
+        }
+    }
+
+    /**
+     * Renueva proactivamente las sesiones próximas a vencer y cierra las abandonadas.
+     */
+    @Scheduled(fixedDelayString = "${bonita.sesiones.intervalo-renovacion:PT1M}")
+    public void mantenerSesiones() {
+        for (BonitaSession session : this.sesiones.porVencer()) {
+            try {
+                this.sesiones.renovar(session, this::loginBonita, this::logoutBonita);
+            } catch (RuntimeException e) {
+                logger.warn("No se pudo renovar la sesión Bonita de {}", session.username(), e);
+            }
+        }
+        this.sesiones.expirarInactivas().forEach(this::logoutBonita);
     }
 
     @Override
-    public Long iniciarProcesoCreacionProyecto(String nombre) {
+    public Long iniciarProcesoCreacionProyecto(ProyectoDTO proyecto) {
+        return this.metricas.medirCreacion(() -> this.crearCaso(proyecto));
+    }
 
-        // Buscar proceso por nombre, obtener id
-        Optional<String> resp = this.buscarProcesoPorNombre(NombresProcesos.PROCESO_CREAR_PROYECTO);
-        if (resp.isEmpty()) {
-            throw new IllegalStateException("No se encontró el proceso " + NombresProcesos.PROCESO_CREAR_PROYECTO);
-        }
+    @Override
+    public Long instanciarCasoCreacionProyecto(ProyectoDTO proyecto, Runnable antesDeInstanciar) {
+        return Long.parseLong(this.instanciarCaso(proyecto, antesDeInstanciar).caseId());
+    }
 
-        Long id = Long.valueOf(resp.get());
-        logger.info("PROCESO ENCONTRADO: "+ resp.get());
+    @Override
+    public void completarCasoCreacionProyecto(Long caseId, ProyectoDTO proyecto, String userId) {
+        String processId = String.valueOf(this.obtenerIdProceso(NombresProcesos.PROCESO_CREAR_PROYECTO));
+        this.completarCaso(processId, String.valueOf(caseId), userId != null ? userId : this.getUserId(), proyecto);
+    }
 
-        // Instanciar proceso
+    @Override
+    public Optional<String> buscarIdUsuario(String username) {
+        BonitaSession actual = this.sesiones.vigente(BonitaSessionHolder.getBonitaSession());
+        return this.resolverUserId(new BonitaSession(username, actual.jsessionId(), actual.xBonitaToken(),
+                actual.createdAtEpochMs(), null));
+    }
 
-        Map<String, Object> instancia = this.instanciarProceso(String.valueOf(id), nombre);
+    private record CasoInstanciado(String processId, String caseId, String userId) {}
 
-        String caseId = String.valueOf(instancia.get("caseId"));
-        logger.info("CASE ID: "+ caseId);
+    private Long crearCaso(ProyectoDTO proyecto) {
+        CasoInstanciado caso = this.instanciarCaso(proyecto, () -> {});
+        try {
+            return this.completarCaso(caso.processId(), caso.caseId(), caso.userId(), proyecto);
+        } catch (BonitaNoDisponibleException e) {
+            // el caso ya existe: no se puede reencolar la creación sin duplicarlo
+            throw new IllegalStateException("Caso " + caso.caseId() + " iniciado pero Bonita dejó de estar disponible", e);
+        }
+    }
 
-        // Obtener tareas del caso
-        List<Map<String, Object>> tareas = this.buscarTareasPorCaso(caseId);
+    private CasoInstanciado instanciarCaso(ProyectoDTO proyecto, Runnable antesDeInstanciar) {
+        Map<String, Object> contrato = ContratosBonita.instanciacion(proyecto);
 
-        // Asignar tarea a usuario
-        if (tareas.isEmpty()) {
-            throw new IllegalStateException("No hay tareas ready en el caso " + caseId);
+        // Proceso (cacheado) y usuario no dependen entre sí: se resuelven en paralelo
+        var inicio = TareasConcurrentes.enParalelo(this.bonitaExecutor,
+                () -> this.obtenerIdProceso(NombresProcesos.PROCESO_CREAR_PROYECTO),
+                this::getUserId);
+        Long id = inicio.primero();
+        String userId = inicio.segundo();
+        logger.info("PROCESO ENCONTRADO: "+ id);
+
+        // Instanciar proceso
+        antesDeInstanciar.run();
+        InstanciaProcesoBonitaDTO instancia;
+        try {
+            instancia = this.instanciarProceso(String.valueOf(id), contrato);
+        } catch (RestClientResponseException e) {
+            if (!esProcesoNoDisponible(e)) throw e;
+            // El ID cacheado quedó viejo (nueva versión o proceso deshabilitado): refrescamos y reintentamos una vez
+            logger.warn("Proceso {} no disponible ({}), refrescando cache", id, e.getStatusCode());
+            this.cacheProcesos.invalidar(NombresProcesos.PROCESO_CREAR_PROYECTO);
+            id = this.obtenerIdProceso(NombresProcesos.PROCESO_CREAR_PROYECTO);
+            instancia = this.instanciarProceso(String.valueOf(id), contrato);
         }
-        String taskId = String.valueOf(tareas.get(0).get("id"));
 
-        String userId = this.getUserId();
+        String caseId = instancia.caseId();
+        logger.info("CASE ID: "+ caseId);
+        return new CasoInstanciado(String.valueOf(id), caseId, userId);
+    }
 
-        this.asignarTareaAUsuario(taskId, userId);
-        logger.info("TAREA ASIGNADA: "+ userId);
+    private Long completarCaso(String processId, String caseId, String userId, ProyectoDTO proyecto) {
 
-        this.setVariablesCase(caseId, Map.of("nombre", nombre));
+        // Esperar a que Bonita cree la tarea ready (la consulta se agrupa con otras creaciones en vuelo)
+        String taskId = this.metricas.medir("esperar_tarea", "/API/bpm/humanTask",
+                () -> this.esperaTareas.esperarTareaReady(processId, caseId, this::buscarTareasReady));
+
+        // Asignación y variables del caso son independientes; la ejecución espera a ambas
+        TareasConcurrentes.ejecutarEnParalelo(this.bonitaExecutor,
+                () -> this.asignarTareaAUsuario(taskId, userId),
+                () -> this.setVariablesCase(caseId, ContratosBonita.variablesCaso(proyecto)));
+        logger.info("TAREA ASIGNADA: "+ userId);
 
-        // Ejecutar tarea
-        this.ejecutarTareaDeUsuario(taskId, null);
+        // Ejecutar tarea con el plan de actividades en el contrato
+        this.ejecutarTareaDeUsuario(taskId, ContratosBonita.ejecucionTarea(proyecto));
 
         return Long.parseLong(caseId);
     }
 
+    @Override
+    public boolean aceptaCreaciones() {
+        return this.proteccion.aceptaCreaciones();
+    }
+
+    @Override
+    public List<CasoBonitaDTO> buscarCasosRecientes(boolean archivados, int pagina, int tamanio) {
+        String path = archivados ? "/API/bpm/archivedCase" : "/API/bpm/case";
+        String processId = String.valueOf(this.obtenerIdProceso(NombresProcesos.PROCESO_CREAR_PROYECTO));
+        List<CasoBonitaDTO> casos = this.llamar("reconciliar_casos", path, () -> this.conReintentoAuth(() -> client.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(path)
+                        .queryParam("p", String.valueOf(pagina))
+                        .queryParam("c", String.valueOf(tamanio))
+                        .queryParam("f", "processDefinitionId=" + processId)
+                        .queryParam("o", "last_update_date DESC")
+                        .build())
+                .headers(this::withAuth)
+                .retrieve()
+                .body(LISTA_CASOS)));
+        return casos == null ? List.of() : casos;
+    }
+
+    @Override
+    public List<TareaBonitaDTO> buscarTareasRecientes(boolean terminadas, int pagina, int tamanio) {
+        String path = terminadas ? "/API/bpm/archivedHumanTask" : "/API/bpm/humanTask";
+        String processId = String.valueOf(this.obtenerIdProceso(NombresProcesos.PROCESO_CREAR_PROYECTO));
+        List<TareaBonitaDTO> tareas = this.llamar("reconciliar_tareas", path, () -> this.conReintentoAuth(() -> client.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(path)
+                        .queryParam("p", String.valueOf(pagina))
+                        .queryParam("c", String.valueOf(tamanio))
+                        .queryParam("f", "processId=" + processId)
+                        .queryParam("o", "last_update_date DESC")
+                        .build())
+                .headers(this::withAuth)
+                .retrieve()
+                .body(LISTA_TAREAS)));
+        return tareas == null ? List.of() : tareas;
+    }
+
+    @Override
+    public void invalidarCacheProcesos() {
+        this.cacheProcesos.invalidarTodo();
+    }
+
+    @Override
+    public EstadisticasCacheDTO estadisticasCacheProcesos() {
+        return this.cacheProcesos.estadisticas();
+    }
+
+    @Override
+    public EstadisticasPoolDTO estadisticasPoolHttp() {
+        PoolStats stats = this.connectionManager.getTotalStats();
+        return new EstadisticasPoolDTO(stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax());
+    }
+
+    private Long obtenerIdProceso(String processName) {
+        return this.cacheProcesos.obtener(processName, nombre -> this.buscarProcesoPorNombre(nombre).map(Long::valueOf))
+                .orElseThrow(() -> new IllegalStateException("No se encontró el proceso " + processName));
+    }
+
+    private static boolean esProcesoNoDisponible(RestClientResponseException e) {
+        if (e.getStatusCode().value() == 404) return true;
+        String body = e.getResponseBodyAsString().toLowerCase();
+        return body.contains("disabled") || body.contains("not enabled");
+    }
+
     private Optional<String> buscarProcesoPorNombre(String processName) {
-        List<Map<String, Object>> procs = client.get()
+        List<ProcesoBonitaDTO> procs = this.llamar("buscar_proceso", "/API/bpm/process", () -> this.conReintentoAuth(() -> client.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/API/bpm/process")
                         .queryParam("p", "0")
@@ -119,58 +333,74 @@ class BonitaService implements I_BonitaService{
                         .build())
                 .headers(this::withAuth)
                 .retrieve()
-                .body(new ParameterizedTypeReference<>() {});
+                .body(LISTA_PROCESOS)));
 
         if (procs == null || procs.isEmpty()) return Optional.empty();
 
-        // si hay varias versiones, elegimos la mayor (podés cambiar a deploymentDate)
+        // si hay varias versiones habilitadas, elegimos la mayor (y a igual versión, el último despliegue)
         return procs.stream()
-            .max(Comparator.comparing(m -> String.valueOf(m.get("version"))))
-            .map(m -> String.valueOf(m.get("id")));
+            .max(ProcesoBonitaDTO.POR_VERSION)
+            .map(ProcesoBonitaDTO::id);
     }
 
-    private Map<String, Object> instanciarProceso(String processId, String nombre) {
-        Map<String, Object> body = Map.of("nombre", nombre);
-
-        return client.post()
+    private InstanciaProcesoBonitaDTO instanciarProceso(String processId, Map<String, Object> contrato) {
+        return this.llamar("instanciar_proceso", "/API/bpm/process/{id}/instantiation", () -> this.conReintentoAuth(() -> client.post()
             .uri("/API/bpm/process/{id}/instantiation", processId)
             .headers(this::withAuth)
             .contentType(MediaType.APPLICATION_JSON)
-            .body(body)
+            .body(contrato)
             .retrieve()
-            .body(new ParameterizedTypeReference<Map<String, Object>>() {});
-    }
-
-    private List<Map<String, Object>> buscarTareasPorCaso(String caseId) {
-        return client.get()
-            .uri(uriBuilder -> uriBuilder
-                .path("/API/bpm/humanTask")
-                .queryParam("p", "0")
-                .queryParam("c", "50")
-                .queryParam("f", "state=ready")
-                .queryParam("f", "caseId=" + caseId)
-                .build())
+            .body(InstanciaProcesoBonitaDTO.class)));
+    }
+
+    private List<TareaBonitaDTO> buscarTareasReady(String processId, List<String> caseIds) {
+        return this.llamar("buscar_tareas", "/API/bpm/humanTask", () -> this.conReintentoAuth(() -> client.get()
+            .uri(uriBuilder -> {
+                uriBuilder
+                    .path("/API/bpm/humanTask")
+                    .queryParam("p", "0")
+                    .queryParam("f", "state=ready");
+                if (caseIds.size() == 1) {
+                    // un solo caso: filtro exacto, con una tarea alcanza
+                    return uriBuilder
+                        .queryParam("c", "1")
+                        .queryParam("f", "caseId=" + caseIds.get(0))
+                        .build();
+                }
+                // varios casos del mismo proceso: una sola consulta, los más nuevos primero,
+                // y se filtra por caseId del lado nuestro
+                return uriBuilder
+                    .queryParam("c", String.valueOf(this.tamanioPaginaTareas))
+                    .queryParam("f", "processId=" + processId)
+                    .queryParam("o", "caseId DESC")
+                    .build();
+            })
             .headers(this::withAuth)
             .retrieve()
-            .body(new ParameterizedTypeReference<List<Map<String, Object>>>() {});
+            .body(LISTA_TAREAS)));
     }
 
     private void setVariablesCase(String caseId, Map<String, Object> variables) {
 
+        // cada variable es un recurso aparte en Bonita: los PUT van en paralelo
+        List<Runnable> puts = new ArrayList<>(variables.size());
         for (Map.Entry<String, Object> entry : variables.entrySet()) {
             String varName = entry.getKey();
             Map<String, Object> body = crearBodyVariable(entry);
 
-            client.put()
+            puts.add(() -> this.llamar("variable_caso", "/API/bpm/caseVariable/{caseId}/{varName}", () -> this.conReintentoAuth(() -> client.put()
                     .uri("/API/bpm/caseVariable/{caseId}/{varName}", caseId, varName)
                     .headers(this::withAuth)
                     .body(body)
                     .retrieve()
-                    .toBodilessEntity();
+                    .toBodilessEntity())));
+        }
+        if (!puts.isEmpty()) {
+            TareasConcurrentes.ejecutarTodas(this.bonitaExecutor, puts);
         }
     }
 
-    private static Map<String, Object> crearBodyVariable(Map.Entry<String, Object> entry) {
+    static Map<String, Object> crearBodyVariable(Map.Entry<String, Object> entry) {
         Object value = entry.getValue();
 
         String type = switch (value) {
@@ -193,43 +423,73 @@ class BonitaService implements I_BonitaService{
     }
 
     private void asignarTareaAUsuario(String taskId, String userId) {
-        client.put()
+        this.llamar("asignar_tarea", "/API/bpm/humanTask/{id}", () -> this.conReintentoAuth(() -> client.put()
             .uri("/API/bpm/humanTask/{id}", taskId)
             .headers(this::withAuth)
             .contentType(MediaType.APPLICATION_JSON)
             .body(Map.of("assigned_id", userId))
             .retrieve()
-            .toBodilessEntity();
+            .toBodilessEntity()));
     }
 
 
     public void ejecutarTareaDeUsuario(String taskId, Map<String, Object> contract) {
-        client.post()
+        this.llamar("ejecutar_tarea", "/API/bpm/userTask/{id}/execution", () -> this.conReintentoAuth(() -> client.post()
             .uri("/API/bpm/userTask/{id}/execution", taskId)
             .headers(this::withAuth)
             .contentType(MediaType.APPLICATION_JSON)
             .body(contract != null ? contract : Map.of())
             .retrieve()
-            .toBodilessEntity();
+            .toBodilessEntity()));
+    }
+
+    /**
+     * Llamada HTTP a Bonita medida y protegida por circuit breaker y bulkhead.
+     */
+    private <T> T llamar(String paso, String endpoint, Supplier<T> llamada) {
+        return this.metricas.medir(paso, endpoint, () -> this.proteccion.ejecutar(paso, llamada));
+    }
+
+    /**
+     * Ejecuta la llamada y, si Bonita responde 401, renueva la sesión y reintenta una sola vez.
+     */
+    private <T> T conReintentoAuth(Supplier<T> llamada) {
+        try {
+            return llamada.get();
+        } catch (HttpClientErrorException.Unauthorized e) {
+            // la que recibió el 401, no la vigente ahora: otro hilo pudo haberla renovado ya
+            BonitaSession fallida = SESION_ENVIADA.get();
+            if (fallida == null || !this.sesiones.renovar(fallida, this::loginBonita, this::logoutBonita)) throw e;
+            logger.info("Sesión Bonita de {} renovada tras 401", fallida.username());
+            return llamada.get();
+        } finally {
+            SESION_ENVIADA.remove();
+        }
     }
 
     private void withAuth(HttpHeaders headers) {
 
-        BonitaSession bonitaSession = BonitaSessionHolder.getBonitaSession();
+        BonitaSession guardada = BonitaSessionHolder.getBonitaSession();
+        BonitaSession bonitaSession = this.sesiones.vigente(guardada);
+        // renovada en esta réplica (tras un 401 o proactivamente): se escribe en la sesión HTTP compartida
+        if (bonitaSession != guardada) BonitaSessionHolder.actualizar(bonitaSession);
+        SESION_ENVIADA.set(bonitaSession);
         String jSessionId = bonitaSession.jsessionId();
         String xBonitaToken = bonitaSession.xBonitaToken();
 
-        logger.info("SESIÓN RECUPERADA: " + jSessionId + " " + xBonitaToken);
-
         if (jSessionId == null || xBonitaToken == null) {
             throw new IllegalStateException("No hay sesión Bonita. Llamá a login() primero.");
         }
-        headers.add(HttpHeaders.COOKIE, "JSESSIONID=" + jSessionId + "; X-Bonita-API-Token=" + xBonitaToken);
+        agregarCookies(headers, bonitaSession);
+    }
+
+    private static void agregarCookies(HttpHeaders headers, BonitaSession bonitaSession) {
+        headers.add(HttpHeaders.COOKIE, "JSESSIONID=" + bonitaSession.jsessionId() + "; X-Bonita-API-Token=" + bonitaSession.xBonitaToken());
         // para POST/PUT/DELETE Bonita exige también el header X-Bonita-API-Token
-        headers.add("X-Bonita-API-Token", xBonitaToken);
+        headers.add("X-Bonita-API-Token", bonitaSession.xBonitaToken());
     }
 
-    private static Map<String, String> parseSetCookieHeaders(List<String> setCookies) {
+    static Map<String, String> parseSetCookieHeaders(List<String> setCookies) {
         // convierte múltiples Set-Cookie en un mapa nombre->valor
         Map<String, String> out = new HashMap<>();
         for (String sc : setCookies) {
@@ -243,21 +503,29 @@ class BonitaService implements I_BonitaService{
     }
 
     private String getUserId(){
-        String username = "walter.bates"; // el usuario con el que te logueaste
-        String userId = null;
-        List<Map<String, Object>> users = client.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/API/identity/user")
-                        .queryParam("f", "userName=" + username)
-                        .build())
-                .cookie("JSESSIONID", BonitaSessionHolder.getBonitaSession().jsessionId()) // js es el valor de la cookie de sesión
-                .retrieve()
-                .body(new ParameterizedTypeReference<List<Map<String, Object>>>() {});
-
-        // Ahora podés obtener el id
-        if (users != null && !users.isEmpty()) {
-            userId = (String) users.get(0).get("id");
+        BonitaSession session = BonitaSessionHolder.getBonitaSession();
+        if (session.userId() != null) {
+            return session.userId();
         }
-        return userId;
+        return this.resolverUserId(session)
+                .orElseThrow(() -> new IllegalStateException("No se encontró el usuario " + session.username() + " en Bonita"));
+    }
+
+    private Optional<String> resolverUserId(BonitaSession session) {
+        return this.cacheUsuarios.obtener(session.username(), username -> {
+            List<UsuarioBonitaDTO> users = this.llamar("buscar_usuario", "/API/identity/user", () -> client.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/API/identity/user")
+                            .queryParam("p", "0")
+                            .queryParam("c", "1")
+                            .queryParam("f", "userName=" + username)
+                            .build())
+                    .cookie("JSESSIONID", session.jsessionId())
+                    .retrieve()
+                    .body(LISTA_USUARIOS));
+
+            if (users == null || users.isEmpty()) return Optional.empty();
+            return Optional.ofNullable(users.get(0).id());
+        });
     }
 }
@@ -0,0 +1,58 @@
+package grupo16.dssd_backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import grupo16.dssd_backend.dtos.EstadisticasCacheDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache de IDs de definiciones de proceso de Bonita, indexado por nombre de proceso.
+ * El ID solo cambia cuando se despliega una nueva versión, así que se guarda con TTL
+ * y se invalida a mano o cuando Bonita indica que el proceso ya no está disponible.
+ */
+@Component
+class CacheProcesosBonita {
+
+    private final Cache<String, Long> cache;
+
+    public CacheProcesosBonita(@Value("${bonita.cache.procesos.ttl:PT10M}") Duration ttl,
+                               @Value("${bonita.cache.procesos.max-size:100}") long maxSize,
+                               MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "bonita.procesos");
+    }
+
+    /**
+     * Devuelve el ID del proceso; si no está en cache lo resuelve con el buscador.
+     * Los procesos no encontrados no se cachean.
+     */
+    Optional<Long> obtener(String nombreProceso, Function<String, Optional<Long>> buscador) {
+        return Optional.ofNullable(cache.get(nombreProceso, nombre -> buscador.apply(nombre).orElse(null)));
+    }
+
+    void invalidar(String nombreProceso) {
+        cache.invalidate(nombreProceso);
+    }
+
+    void invalidarTodo() {
+        cache.invalidateAll();
+    }
+
+    EstadisticasCacheDTO estadisticas() {
+        CacheStats stats = cache.stats();
+        return new EstadisticasCacheDTO(
+                cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+}
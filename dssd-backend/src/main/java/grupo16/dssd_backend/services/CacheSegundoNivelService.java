@@ -0,0 +1,52 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.EstadisticasRegionDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+class CacheSegundoNivelService implements I_CacheSegundoNivelService {
+
+    private final SessionFactory sessionFactory;
+
+    public CacheSegundoNivelService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @Override
+    public List<EstadisticasRegionDTO> estadisticas() {
+        Statistics stats = this.sessionFactory.getStatistics();
+        List<EstadisticasRegionDTO> out = new ArrayList<>();
+        Arrays.stream(stats.getSecondLevelCacheRegionNames()).sorted().forEach(region -> {
+            CacheRegionStatistics r = stats.getDomainDataRegionStatistics(region);
+            out.add(estadisticas(region, r.getHitCount(), r.getMissCount(), r.getPutCount()));
+        });
+        out.add(estadisticas("consultas", stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount(),
+                stats.getQueryCachePutCount()));
+        return out;
+    }
+
+    @Override
+    public void invalidar() {
+        this.sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Override
+    public void invalidar(Class<?> entidad) {
+        // necesario tras escrituras por JDBC directo, que Hibernate no ve
+        this.sessionFactory.getCache().evictEntityData(entidad);
+        this.sessionFactory.getCache().evictQueryRegions();
+    }
+
+    private static EstadisticasRegionDTO estadisticas(String region, long aciertos, long fallos, long escrituras) {
+        long total = aciertos + fallos;
+        return new EstadisticasRegionDTO(region, aciertos, fallos, escrituras, total == 0 ? 0.0 : (double) aciertos / total);
+    }
+}
@@ -0,0 +1,40 @@
+package grupo16.dssd_backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache compartida username -> ID de usuario de Bonita. Se desaloja al hacer logout.
+ */
+@Component
+class CacheUsuariosBonita {
+
+    private final Cache<String, String> cache;
+
+    public CacheUsuariosBonita(@Value("${bonita.cache.usuarios.ttl:PT1H}") Duration ttl,
+                               @Value("${bonita.cache.usuarios.max-size:1000}") long maxSize,
+                               MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "bonita.usuarios");
+    }
+
+    Optional<String> obtener(String username, Function<String, Optional<String>> buscador) {
+        return Optional.ofNullable(cache.get(username, u -> buscador.apply(u).orElse(null)));
+    }
+
+    void desalojar(String username) {
+        cache.invalidate(username);
+    }
+}
@@ -0,0 +1,34 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.EventoBonitaDTO;
+import grupo16.dssd_backend.repositories.ProyectoRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Stub para desarrollo (perfil local): emite periódicamente un evento de caso para el último
+ * proyecto creado, como lo haría un conector de Bonita, para probar el stream SSE sin Bonita.
+ * No emite TAREA_READY: completaría esperas reales con una tarea inexistente.
+ */
+@Component
+@Profile("local")
+class EmisorEventosBonitaLocal {
+
+    private final I_EventosBonitaService eventosService;
+    private final ProyectoRepository proyectoRepository;
+
+    public EmisorEventosBonitaLocal(I_EventosBonitaService eventosService, ProyectoRepository proyectoRepository) {
+        this.eventosService = eventosService;
+        this.proyectoRepository = proyectoRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${eventos.stub.intervalo:PT10S}")
+    public void emitir() {
+        this.proyectoRepository.findFirstByCaseIdNotNullOrderByIdDesc().ifPresent(p ->
+                this.eventosService.recibir(new EventoBonitaDTO(UUID.randomUUID().toString(), "CASO_ACTUALIZADO",
+                        String.valueOf(p.getCaseId()), null, null, "started", null)));
+    }
+}
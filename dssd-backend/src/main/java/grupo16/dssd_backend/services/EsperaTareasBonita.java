@@ -0,0 +1,193 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.BonitaSession;
+import grupo16.dssd_backend.dtos.TareaBonitaDTO;
+import grupo16.dssd_backend.helpers.BonitaSessionHolder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Espera a que Bonita cree la tarea ready de un caso recién instanciado.
+ * <p>
+ * Cada espera se sondea con backoff exponencial acotado hasta un plazo total. En cada tick
+ * las esperas vencidas del mismo usuario y proceso se agrupan en una única consulta a
+ * humanTask, así N creaciones en vuelo no consultan N veces a Bonita por tick.
+ */
+@Component
+class EsperaTareasBonita {
+
+    private static final Logger logger = LoggerFactory.getLogger(EsperaTareasBonita.class);
+
+    /** Consulta tareas ready: (processId, caseIds) -> tareas de esos casos (puede traer de otros). */
+    interface ConsultaTareas extends BiFunction<String, List<String>, List<TareaBonitaDTO>> {
+    }
+
+    private record Grupo(String username, String processId) {}
+
+    private static final class Espera {
+        private final String caseId;
+        private final String processId;
+        private final BonitaSession bonitaSession;
+        private final ConsultaTareas consulta;
+        private final CompletableFuture<String> resultado = new CompletableFuture<>();
+        private final long inicioNanos = System.nanoTime();
+        private final long plazoNanos;
+        private volatile long intervaloNanos;
+        private volatile long proximoSondeoNanos;
+
+        private Espera(String caseId, String processId, BonitaSession bonitaSession, ConsultaTareas consulta,
+                       long plazoNanos, long intervaloInicialNanos) {
+            this.caseId = caseId;
+            this.processId = processId;
+            this.bonitaSession = bonitaSession;
+            this.consulta = consulta;
+            this.plazoNanos = this.inicioNanos + plazoNanos;
+            this.intervaloNanos = intervaloInicialNanos;
+            this.proximoSondeoNanos = this.inicioNanos;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Espera> esperas = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService bonitaExecutor;
+    private final Set<Grupo> gruposEnCurso = ConcurrentHashMap.newKeySet();
+    private final long plazoNanos;
+    private final long intervaloInicialNanos;
+    private final long intervaloMaxNanos;
+    private final Timer timerEncontrada;
+    private final Timer timerVencida;
+    private final Counter consultas;
+
+    public EsperaTareasBonita(@Qualifier("bonitaExecutor") ExecutorService bonitaExecutor,
+                              @Value("${bonita.espera-tareas.plazo:PT30S}") Duration plazo,
+                              @Value("${bonita.espera-tareas.intervalo-inicial:PT0.1S}") Duration intervaloInicial,
+                              @Value("${bonita.espera-tareas.intervalo-max:PT2S}") Duration intervaloMax,
+                              @Value("${bonita.espera-tareas.tick:PT0.05S}") Duration tick,
+                              MeterRegistry meterRegistry) {
+        this.bonitaExecutor = bonitaExecutor;
+        this.plazoNanos = plazo.toNanos();
+        this.intervaloInicialNanos = intervaloInicial.toNanos();
+        this.intervaloMaxNanos = intervaloMax.toNanos();
+        this.timerEncontrada = Timer.builder("bonita.espera.tarea")
+                .tag("resultado", "encontrada")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.timerVencida = Timer.builder("bonita.espera.tarea")
+                .tag("resultado", "vencida")
+                .register(meterRegistry);
+        this.consultas = Counter.builder("bonita.espera.consultas").register(meterRegistry);
+        meterRegistry.gauge("bonita.espera.pendientes", this.esperas, Map::size);
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("espera-tareas").daemon().factory());
+        this.ticker.scheduleWithFixedDelay(this::tick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Bloquea hasta que el caso tenga una tarea ready y devuelve su ID.
+     */
+    String esperarTareaReady(String processId, String caseId, ConsultaTareas consulta) {
+        Espera espera = new Espera(caseId, processId, BonitaSessionHolder.getBonitaSession(), consulta,
+                this.plazoNanos, this.intervaloInicialNanos);
+        this.esperas.put(caseId, espera);
+        try {
+            return espera.resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        } finally {
+            this.esperas.remove(caseId, espera);
+        }
+    }
+
+    /**
+     * Completa la espera de un caso cuya tarea ya se conoce por otra vía (por ejemplo un evento).
+     */
+    boolean notificarTareaReady(String caseId, String taskId) {
+        Espera espera = this.esperas.get(caseId);
+        return espera != null && this.completar(espera, taskId);
+    }
+
+    private void tick() {
+        try {
+            long ahora = System.nanoTime();
+            Map<Grupo, List<Espera>> vencidas = new HashMap<>();
+            for (Espera espera : this.esperas.values()) {
+                if (espera.resultado.isDone()) continue;
+                if (ahora >= espera.plazoNanos) {
+                    this.timerVencida.record(ahora - espera.inicioNanos, TimeUnit.NANOSECONDS);
+                    espera.resultado.completeExceptionally(new IllegalStateException(
+                            "No hay tareas ready en el caso " + espera.caseId));
+                    continue;
+                }
+                if (ahora >= espera.proximoSondeoNanos) {
+                    vencidas.computeIfAbsent(new Grupo(espera.bonitaSession.username(), espera.processId),
+                            g -> new ArrayList<>()).add(espera);
+                }
+            }
+            // una consulta en vuelo por grupo: el siguiente tick retoma a los que queden
+            vencidas.forEach((grupo, lote) -> {
+                if (this.gruposEnCurso.add(grupo)) {
+                    this.bonitaExecutor.execute(() -> this.sondear(grupo, lote));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Error en el tick de espera de tareas", e);
+        }
+    }
+
+    private void sondear(Grupo grupo, List<Espera> lote) {
+        try {
+            Espera primera = lote.get(0);
+            List<String> caseIds = lote.stream().map(e -> e.caseId).toList();
+            this.consultas.increment();
+            List<TareaBonitaDTO> tareas = BonitaSessionHolder.ejecutarCon(primera.bonitaSession,
+                    () -> primera.consulta.apply(grupo.processId(), caseIds));
+
+            // toMap no admite claves ni valores null: una tarea sin caseId o id no sirve para completar
+            Map<String, String> tareaPorCaso = (tareas == null ? List.<TareaBonitaDTO>of() : tareas).stream()
+                    .filter(t -> t.caseId() != null && t.id() != null)
+                    .collect(Collectors.toMap(TareaBonitaDTO::caseId, TareaBonitaDTO::id, (a, b) -> a));
+            for (Espera espera : lote) {
+                String taskId = tareaPorCaso.get(espera.caseId);
+                if (taskId == null || !this.completar(espera, taskId)) {
+                    this.reprogramar(espera);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Falló la consulta de tareas ready para {} casos", lote.size(), e);
+            lote.forEach(this::reprogramar);
+        } finally {
+            this.gruposEnCurso.remove(grupo);
+        }
+    }
+
+    private boolean completar(Espera espera, String taskId) {
+        if (!espera.resultado.complete(taskId)) return false;
+        this.timerEncontrada.record(System.nanoTime() - espera.inicioNanos, TimeUnit.NANOSECONDS);
+        return true;
+    }
+
+    private void reprogramar(Espera espera) {
+        // el backoff solo lo toca el sondeo en curso del grupo (uno por vez)
+        espera.proximoSondeoNanos = System.nanoTime() + espera.intervaloNanos;
+        espera.intervaloNanos = Math.min(espera.intervaloNanos * 2, this.intervaloMaxNanos);
+    }
+
+    @PreDestroy
+    void cerrar() {
+        this.ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,240 @@
+package grupo16.dssd_backend.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import grupo16.dssd_backend.dtos.ActividadIndexadaDTO;
+import grupo16.dssd_backend.dtos.ConteoActividadesDTO;
+import grupo16.dssd_backend.dtos.ConteoUbicacionDTO;
+import grupo16.dssd_backend.dtos.ResumenEstadisticasDTO;
+import grupo16.dssd_backend.models.ClaveResumen;
+import grupo16.dssd_backend.models.DimensionResumen;
+import grupo16.dssd_backend.models.ResumenEstadistica;
+import grupo16.dssd_backend.repositories.ActividadRepository;
+import grupo16.dssd_backend.repositories.ProyectoRepository;
+import grupo16.dssd_backend.repositories.ResumenEstadisticaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene la tabla resumen_estadistica para los tableros, así leerlos no hace GROUP BY sobre
+ * Proyecto/Actividad.
+ * <p>
+ * Cada proyecto guardado suma sus deltas en memoria después del commit y un volcado periódico
+ * los aplica en lote (un solo escritor, sin contención sobre las filas calientes). Como el
+ * volcado es asíncrono, una verificación periódica recalcula todo y corrige lo que difiera.
+ */
+@Service
+class EstadisticasService implements I_EstadisticasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadisticasService.class);
+
+    private static final String SUMAR = """
+            update resumen_estadistica set cantidad = cantidad + ?
+            where dimension = ? and clave = ? and periodo = ?
+            """;
+    private static final String FIJAR = """
+            update resumen_estadistica set cantidad = ?
+            where dimension = ? and clave = ? and periodo = ?
+            """;
+    private static final String INSERTAR = """
+            insert into resumen_estadistica (cantidad, dimension, clave, periodo) values (?, ?, ?, ?)
+            """;
+    private static final String BORRAR = """
+            delete from resumen_estadistica where dimension = ? and clave = ? and periodo = ?
+            """;
+
+    private final ResumenEstadisticaRepository resumenRepository;
+    private final ProyectoRepository proyectoRepository;
+    private final ActividadRepository actividadRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final LoadingCache<String, ResumenEstadisticasDTO> lecturas;
+    private final ConcurrentHashMap<ClaveResumen, Long> pendientes = new ConcurrentHashMap<>();
+    // volcado y verificación escriben la misma tabla: de a uno
+    private final ReentrantLock escritura = new ReentrantLock();
+    private final Counter correcciones;
+
+    public EstadisticasService(ResumenEstadisticaRepository resumenRepository,
+                               ProyectoRepository proyectoRepository,
+                               ActividadRepository actividadRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${estadisticas.cache.ttl:PT10S}") Duration ttlCache,
+                               MeterRegistry meterRegistry) {
+        this.resumenRepository = resumenRepository;
+        this.proyectoRepository = proyectoRepository;
+        this.actividadRepository = actividadRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.lecturas = Caffeine.newBuilder()
+                .expireAfterWrite(ttlCache)
+                .maximumSize(100)
+                .build(this::leer);
+        this.correcciones = Counter.builder("estadisticas.resumen.correcciones").register(meterRegistry);
+        meterRegistry.gauge("estadisticas.resumen.pendientes", this.pendientes, Map::size);
+    }
+
+    @Override
+    public ResumenEstadisticasDTO resumen(String periodo) {
+        return this.lecturas.get(periodo == null ? ClaveResumen.TOTAL : periodo);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alGuardarProyecto(ProyectoGuardadoEvento evento) {
+        this.sumar(new ClaveResumen(DimensionResumen.PROYECTOS_UBICACION, ClaveResumen.claveDe(evento.ubicacion()), ClaveResumen.TOTAL), 1);
+        for (ActividadIndexadaDTO actividad : evento.actividades()) {
+            String recurso = ClaveResumen.claveDe(actividad.recurso());
+            String periodo = ClaveResumen.periodoDe(actividad.fechaInicio());
+            this.sumar(new ClaveResumen(DimensionResumen.ACTIVIDADES_RECURSO, recurso, periodo), 1);
+            this.sumar(new ClaveResumen(DimensionResumen.ACTIVIDADES_RECURSO, recurso, ClaveResumen.TOTAL), 1);
+            if (Boolean.TRUE.equals(actividad.requiereColaboracion())) {
+                this.sumar(new ClaveResumen(DimensionResumen.COLABORACIONES_RECURSO, recurso, periodo), 1);
+                this.sumar(new ClaveResumen(DimensionResumen.COLABORACIONES_RECURSO, recurso, ClaveResumen.TOTAL), 1);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${estadisticas.intervalo-volcado:PT5S}")
+    public void volcar() {
+        if (this.pendientes.isEmpty() || !this.escritura.tryLock()) return;
+        try {
+            this.volcarPendientes();
+        } catch (RuntimeException e) {
+            logger.warn("Falló el volcado del resumen de estadísticas, se reintenta en el próximo", e);
+        } finally {
+            this.escritura.unlock();
+        }
+    }
+
+    /**
+     * Recalcula el resumen completo desde Proyecto/Actividad y corrige las filas que difieran
+     * (deltas perdidos por un reinicio, o la primera vez sobre una base con datos).
+     */
+    @Scheduled(fixedDelayString = "${estadisticas.verificacion.intervalo:PT1H}",
+               initialDelayString = "${estadisticas.verificacion.demora-inicial:PT10S}")
+    public void verificar() {
+        this.escritura.lock();
+        try {
+            this.volcarPendientes();
+            // un proyecto que commitea entre el volcado y el recálculo puede quedar contado
+            // dos veces; lo corrige la verificación siguiente
+            int corregidas = this.tx.execute(status -> this.corregir(this.recalcular()));
+            if (corregidas > 0) {
+                this.correcciones.increment(corregidas);
+                this.lecturas.invalidateAll();
+                logger.warn("Resumen de estadísticas: {} filas corregidas por el recálculo completo", corregidas);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Falló la verificación del resumen de estadísticas", e);
+        } finally {
+            this.escritura.unlock();
+        }
+    }
+
+    private void sumar(ClaveResumen clave, long delta) {
+        this.pendientes.merge(clave, delta, Long::sum);
+    }
+
+    private void volcarPendientes() {
+        Map<ClaveResumen, Long> lote = new HashMap<>();
+        for (ClaveResumen clave : this.pendientes.keySet()) {
+            // remove es atómico: lo que se sume después queda para el próximo volcado
+            Long delta = this.pendientes.remove(clave);
+            if (delta != null && delta != 0) lote.put(clave, delta);
+        }
+        if (lote.isEmpty()) return;
+        try {
+            this.tx.executeWithoutResult(status -> this.aplicar(SUMAR, lote));
+        } catch (RuntimeException e) {
+            lote.forEach(this::sumar);
+            throw e;
+        }
+    }
+
+    private Map<ClaveResumen, Long> recalcular() {
+        Map<ClaveResumen, Long> esperado = new HashMap<>();
+        for (ConteoUbicacionDTO c : this.proyectoRepository.contarPorUbicacion()) {
+            esperado.merge(new ClaveResumen(DimensionResumen.PROYECTOS_UBICACION, ClaveResumen.claveDe(c.ubicacion()), ClaveResumen.TOTAL),
+                    c.proyectos(), Long::sum);
+        }
+        for (ConteoActividadesDTO c : this.actividadRepository.contarPorRecursoYMes()) {
+            String recurso = ClaveResumen.claveDe(c.recurso());
+            String periodo = ClaveResumen.periodoDe(c.anio(), c.mes());
+            for (String p : List.of(periodo, ClaveResumen.TOTAL)) {
+                esperado.merge(new ClaveResumen(DimensionResumen.ACTIVIDADES_RECURSO, recurso, p), c.actividades(), Long::sum);
+                if (c.colaboraciones() != null && c.colaboraciones() > 0) {
+                    esperado.merge(new ClaveResumen(DimensionResumen.COLABORACIONES_RECURSO, recurso, p), c.colaboraciones(), Long::sum);
+                }
+            }
+        }
+        return esperado;
+    }
+
+    private int corregir(Map<ClaveResumen, Long> esperado) {
+        Map<ClaveResumen, Long> actual = this.resumenRepository.findAll().stream()
+                .collect(Collectors.toMap(ResumenEstadistica::getClave, ResumenEstadistica::getCantidad));
+
+        Map<ClaveResumen, Long> distintas = new HashMap<>();
+        esperado.forEach((clave, cantidad) -> {
+            if (!cantidad.equals(actual.get(clave))) distintas.put(clave, cantidad);
+        });
+        List<Object[]> sobrantes = actual.keySet().stream()
+                .filter(clave -> !esperado.containsKey(clave))
+                .map(clave -> new Object[]{clave.dimension().name(), clave.clave(), clave.periodo()})
+                .toList();
+
+        this.aplicar(FIJAR, distintas);
+        if (!sobrantes.isEmpty()) this.jdbcTemplate.batchUpdate(BORRAR, sobrantes);
+        return distintas.size() + sobrantes.size();
+    }
+
+    // update en lote y, para las filas que todavía no existen, insert con el mismo valor
+    private void aplicar(String update, Map<ClaveResumen, Long> valores) {
+        if (valores.isEmpty()) return;
+        List<Map.Entry<ClaveResumen, Long>> entradas = new ArrayList<>(valores.entrySet());
+        List<Object[]> args = entradas.stream().map(EstadisticasService::argumentos).toList();
+        int[] filas = this.jdbcTemplate.batchUpdate(update, args);
+        List<Object[]> nuevas = new ArrayList<>();
+        for (int i = 0; i < filas.length; i++) {
+            if (filas[i] == 0) nuevas.add(args.get(i));
+        }
+        if (!nuevas.isEmpty()) this.jdbcTemplate.batchUpdate(INSERTAR, nuevas);
+    }
+
+    private static Object[] argumentos(Map.Entry<ClaveResumen, Long> entrada) {
+        ClaveResumen clave = entrada.getKey();
+        return new Object[]{entrada.getValue(), clave.dimension().name(), clave.clave(), clave.periodo()};
+    }
+
+    private ResumenEstadisticasDTO leer(String periodo) {
+        Map<DimensionResumen, Map<String, Long>> porDimension = new EnumMap<>(DimensionResumen.class);
+        for (DimensionResumen d : DimensionResumen.values()) porDimension.put(d, new TreeMap<>());
+        for (ResumenEstadistica r : this.resumenRepository.findByClavePeriodoIn(List.of(periodo, ClaveResumen.TOTAL))) {
+            ClaveResumen clave = r.getClave();
+            // los proyectos no tienen fecha: siempre van del total
+            boolean corresponde = clave.dimension() == DimensionResumen.PROYECTOS_UBICACION
+                    ? ClaveResumen.TOTAL.equals(clave.periodo())
+                    : periodo.equals(clave.periodo());
+            if (corresponde && r.getCantidad() != 0) porDimension.get(clave.dimension()).put(clave.clave(), r.getCantidad());
+        }
+        return new ResumenEstadisticasDTO(periodo,
+                porDimension.get(DimensionResumen.PROYECTOS_UBICACION),
+                porDimension.get(DimensionResumen.ACTIVIDADES_RECURSO),
+                porDimension.get(DimensionResumen.COLABORACIONES_RECURSO));
+    }
+}
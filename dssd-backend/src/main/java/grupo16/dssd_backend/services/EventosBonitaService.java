@@ -0,0 +1,165 @@
+package grupo16.dssd_backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import grupo16.dssd_backend.dtos.EventoBonitaDTO;
+import grupo16.dssd_backend.dtos.NotificacionBonitaDTO;
+import grupo16.dssd_backend.models.Proyecto;
+import grupo16.dssd_backend.repositories.ProyectoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Eventos de tareas y casos que envían los conectores de Bonita, en lugar de consultar
+ * humanTask. Se descartan los reenvíos, se procesan de a uno desde una cola acotada y se
+ * empujan por SSE a los clientes conectados. Un TAREA_READY además completa la espera de
+ * EsperaTareasBonita del caso, que deja de sondear.
+ */
+@Service
+class EventosBonitaService implements I_EventosBonitaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventosBonitaService.class);
+
+    private record Suscripcion(String username, SseEmitter emitter) {}
+
+    private final ProyectoRepository proyectoRepository;
+    private final EsperaTareasBonita esperaTareas;
+    private final BlockingQueue<EventoBonitaDTO> cola;
+    private final Cache<String, Boolean> recibidos;
+    private final CopyOnWriteArrayList<Suscripcion> suscripciones = new CopyOnWriteArrayList<>();
+    private final long timeoutSseMs;
+    private final Thread worker;
+    private final Counter aceptados;
+    private final Counter duplicados;
+    private final Counter rechazados;
+    private final Counter notificaciones;
+
+    public EventosBonitaService(ProyectoRepository proyectoRepository,
+                                EsperaTareasBonita esperaTareas,
+                                @Value("${eventos.bonita.capacidad-cola:1000}") int capacidadCola,
+                                @Value("${eventos.bonita.ventana-deduplicacion:PT10M}") Duration ventanaDeduplicacion,
+                                @Value("${eventos.sse.timeout:PT30M}") Duration timeoutSse,
+                                MeterRegistry meterRegistry) {
+        this.proyectoRepository = proyectoRepository;
+        this.esperaTareas = esperaTareas;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.recibidos = Caffeine.newBuilder()
+                .expireAfterWrite(ventanaDeduplicacion)
+                .maximumSize(100_000)
+                .build();
+        this.timeoutSseMs = timeoutSse.toMillis();
+        this.aceptados = Counter.builder("eventos.bonita.recibidos").tag("resultado", "aceptado").register(meterRegistry);
+        this.duplicados = Counter.builder("eventos.bonita.recibidos").tag("resultado", "duplicado").register(meterRegistry);
+        this.rechazados = Counter.builder("eventos.bonita.recibidos").tag("resultado", "rechazado").register(meterRegistry);
+        this.notificaciones = Counter.builder("eventos.sse.enviados").register(meterRegistry);
+        meterRegistry.gauge("eventos.bonita.cola", this.cola, BlockingQueue::size);
+        meterRegistry.gauge("eventos.sse.suscriptores", this.suscripciones, CopyOnWriteArrayList::size);
+
+        this.worker = Thread.ofPlatform().name("eventos-bonita").daemon().start(this::procesarCola);
+    }
+
+    @Override
+    public Recepcion recibir(EventoBonitaDTO evento) {
+        String clave = evento.claveDeduplicacion();
+        if (this.recibidos.asMap().putIfAbsent(clave, Boolean.TRUE) != null) {
+            this.duplicados.increment();
+            return Recepcion.DUPLICADO;
+        }
+        if (!this.cola.offer(evento)) {
+            // no quedó procesado: el reintento de Bonita no tiene que tomarse como duplicado
+            this.recibidos.invalidate(clave);
+            this.rechazados.increment();
+            return Recepcion.RECHAZADO;
+        }
+        this.aceptados.increment();
+        return Recepcion.ACEPTADO;
+    }
+
+    @Override
+    public SseEmitter suscribir(String username) {
+        SseEmitter emitter = new SseEmitter(this.timeoutSseMs);
+        Suscripcion suscripcion = new Suscripcion(username, emitter);
+        emitter.onCompletion(() -> this.suscripciones.remove(suscripcion));
+        emitter.onTimeout(() -> this.suscripciones.remove(suscripcion));
+        emitter.onError(e -> this.suscripciones.remove(suscripcion));
+        this.suscripciones.add(suscripcion);
+        return emitter;
+    }
+
+    // Comentario SSE periódico: mantiene abiertas las conexiones detrás de proxies y detecta las caídas
+    @Scheduled(fixedDelayString = "${eventos.sse.heartbeat:PT25S}")
+    public void heartbeat() {
+        for (Suscripcion s : this.suscripciones) {
+            this.enviar(s, SseEmitter.event().comment("ping"));
+        }
+    }
+
+    private void procesarCola() {
+        while (!Thread.currentThread().isInterrupted()) {
+            EventoBonitaDTO evento;
+            try {
+                evento = this.cola.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                this.procesar(evento);
+            } catch (RuntimeException e) {
+                // no quedó procesado: un reenvío de Bonita no tiene que tomarse como duplicado
+                this.recibidos.invalidate(evento.claveDeduplicacion());
+                logger.warn("Error procesando el evento {} de Bonita", evento.claveDeduplicacion(), e);
+            }
+        }
+    }
+
+    private void procesar(EventoBonitaDTO evento) {
+        if (EventoBonitaDTO.TAREA_READY.equals(evento.tipo()) && evento.taskId() != null) {
+            this.esperaTareas.notificarTareaReady(evento.caseId(), evento.taskId());
+        }
+
+        // correlación por caseId (índice único, resuelto desde el cache de consultas)
+        Optional<Proyecto> proyecto = this.proyectoRepository.findByCaseId(Long.valueOf(evento.caseId()));
+        var notificacion = new NotificacionBonitaDTO(evento.tipo(), evento.caseId(), evento.taskId(), evento.taskName(),
+                evento.state(), proyecto.map(Proyecto::getId).orElse(null), proyecto.map(Proyecto::getNombre).orElse(null));
+
+        for (Suscripcion s : this.suscripciones) {
+            if (evento.usuario() != null && !evento.usuario().equals(s.username())) continue;
+            if (this.enviar(s, SseEmitter.event().id(evento.claveDeduplicacion()).name(evento.tipo()).data(notificacion))) {
+                this.notificaciones.increment();
+            }
+        }
+    }
+
+    private boolean enviar(Suscripcion s, SseEmitter.SseEventBuilder evento) {
+        try {
+            s.emitter().send(evento);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // cliente desconectado: se descarta la suscripción
+            this.suscripciones.remove(s);
+            s.emitter().completeWithError(e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void cerrar() {
+        this.worker.interrupt();
+        this.suscripciones.forEach(s -> s.emitter().complete());
+    }
+}
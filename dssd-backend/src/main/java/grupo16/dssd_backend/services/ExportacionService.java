@@ -0,0 +1,170 @@
+package grupo16.dssd_backend.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import grupo16.dssd_backend.dtos.FilaExportacionDTO;
+import grupo16.dssd_backend.dtos.FiltroExportacionDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de proyectos con memoria constante: una consulta de proyección (sin entidades
+ * administradas, así el contexto de persistencia no crece) leída con cursor forward-only y
+ * fetch size acotado, escrita a la respuesta fila por fila.
+ * <p>
+ * En NDJSON cada línea es un proyecto con sus actividades (las filas vienen ordenadas por
+ * proyecto, así solo se retiene uno a la vez); en CSV cada línea es una actividad.
+ */
+@Service
+class ExportacionService implements I_ExportacionService {
+
+    private static final String CONSULTA = """
+            select new grupo16.dssd_backend.dtos.FilaExportacionDTO(
+                p.id, p.nombre, p.descripcion, p.ubicacion, p.caseId, p.estado,
+                a.id, a.nombre, a.fechaInicio, a.fechaFin, a.recurso, a.requiereColaboracion)
+            from Actividad a join a.proyecto p
+            where (:recurso is null or a.recurso = :recurso)
+              and (:ubicacion is null or p.ubicacion = :ubicacion)
+              and (:desde is null or a.fechaFin >= :desde)
+              and (:hasta is null or a.fechaInicio <= :hasta)
+            order by p.id, a.id
+            """;
+
+    private static final String CABECERA_CSV = "proyecto_id,proyecto_nombre,descripcion,ubicacion,case_id,estado,"
+            + "actividad_id,actividad_nombre,fecha_inicio,fecha_fin,recurso,requiere_colaboracion";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ExportacionService(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${proyectos.exportacion.fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.tx = new TransactionTemplate(transactionManager);
+        // el cursor del driver de Postgres solo respeta el fetch size dentro de una transacción
+        this.tx.setReadOnly(true);
+    }
+
+    @Override
+    public void exportar(FiltroExportacionDTO filtro, Formato formato, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        try {
+            this.tx.executeWithoutResult(status -> {
+                try (Stream<FilaExportacionDTO> filas = this.consulta(filtro).getResultStream()) {
+                    if (formato == Formato.CSV) this.escribirCsv(filas, writer);
+                    else this.escribirNdjson(filas, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private TypedQuery<FilaExportacionDTO> consulta(FiltroExportacionDTO filtro) {
+        return this.entityManager.createQuery(CONSULTA, FilaExportacionDTO.class)
+                .setParameter("recurso", filtro.recurso())
+                .setParameter("ubicacion", filtro.ubicacion())
+                .setParameter("desde", filtro.desde())
+                .setParameter("hasta", filtro.hasta())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, this.fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false);
+    }
+
+    private void escribirCsv(Stream<FilaExportacionDTO> filas, Writer writer) throws IOException {
+        writer.write(CABECERA_CSV);
+        writer.write('\n');
+        for (FilaExportacionDTO f : (Iterable<FilaExportacionDTO>) filas::iterator) {
+            writer.write(String.valueOf(f.proyectoId()));
+            writer.write(',');
+            writer.write(csv(f.proyectoNombre()));
+            writer.write(',');
+            writer.write(csv(f.descripcion()));
+            writer.write(',');
+            writer.write(csv(f.ubicacion()));
+            writer.write(',');
+            writer.write(f.caseId() != null ? f.caseId().toString() : "");
+            writer.write(',');
+            writer.write(f.estado() != null ? f.estado().name() : "");
+            writer.write(',');
+            writer.write(String.valueOf(f.actividadId()));
+            writer.write(',');
+            writer.write(csv(f.actividadNombre()));
+            writer.write(',');
+            writer.write(f.fechaInicio() != null ? f.fechaInicio().toString() : "");
+            writer.write(',');
+            writer.write(f.fechaFin() != null ? f.fechaFin().toString() : "");
+            writer.write(',');
+            writer.write(f.recurso() != null ? f.recurso().name() : "");
+            writer.write(',');
+            writer.write(String.valueOf(Boolean.TRUE.equals(f.requiereColaboracion())));
+            writer.write('\n');
+        }
+    }
+
+    private void escribirNdjson(Stream<FilaExportacionDTO> filas, Writer writer) throws IOException {
+        try (JsonGenerator json = this.objectMapper.getFactory().createGenerator(writer)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(new SerializedString("\n"));
+
+            Long actual = null;
+            Map<String, Object> proyecto = null;
+            List<Map<String, Object>> actividades = null;
+            for (FilaExportacionDTO f : (Iterable<FilaExportacionDTO>) filas::iterator) {
+                if (!f.proyectoId().equals(actual)) {
+                    if (proyecto != null) json.writeObject(proyecto);
+                    actual = f.proyectoId();
+                    actividades = new ArrayList<>();
+                    proyecto = new LinkedHashMap<>();
+                    proyecto.put("id", f.proyectoId());
+                    proyecto.put("nombre", f.proyectoNombre());
+                    proyecto.put("descripcion", f.descripcion());
+                    proyecto.put("ubicacion", f.ubicacion());
+                    proyecto.put("caseId", f.caseId());
+                    proyecto.put("estado", f.estado() != null ? f.estado().name() : null);
+                    proyecto.put("actividades", actividades);
+                }
+                Map<String, Object> actividad = new LinkedHashMap<>();
+                actividad.put("id", f.actividadId());
+                actividad.put("nombre", f.actividadNombre());
+                actividad.put("fechaInicio", f.fechaInicio() != null ? f.fechaInicio().toString() : null);
+                actividad.put("fechaFin", f.fechaFin() != null ? f.fechaFin().toString() : null);
+                actividad.put("recurso", f.recurso() != null ? f.recurso().name() : null);
+                actividad.put("requiereColaboracion", Boolean.TRUE.equals(f.requiereColaboracion()));
+                actividades.add(actividad);
+            }
+            if (proyecto != null) {
+                json.writeObject(proyecto);
+                json.writeRaw('\n');
+            }
+        }
+    }
+
+    private static String csv(String valor) {
+        if (valor == null) return "";
+        boolean comillas = valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+                || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+        return comillas ? "\"" + valor.replace("\"", "\"\"") + "\"" : valor;
+    }
+}
@@ -0,0 +1,169 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.BonitaSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Pool de sesiones Bonita del lado del servidor: una sesión compartida por usuario entre
+ * todas sus sesiones de navegador y requests concurrentes.
+ * <p>
+ * Para poder volver a loguear sin intervención del usuario se guardan sus credenciales,
+ * solo en memoria y nunca en la sesión HTTP ni en la base. Las renovaciones son
+ * single-flight: ante varios 401 simultáneos se hace un único login.
+ */
+@Component
+class GestorSesionesBonita {
+
+    private final ConcurrentHashMap<String, Entrada> sesiones = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private final long margenRenovacionMs;
+    private final long inactividadMaxMs;
+
+    private static final class Entrada {
+        private final byte[] password;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile BonitaSession sesion;
+        private volatile long ultimoUso;
+        private int referencias;
+
+        private Entrada(String password, BonitaSession sesion) {
+            this.password = password.getBytes(StandardCharsets.UTF_8);
+            this.sesion = sesion;
+            this.ultimoUso = System.currentTimeMillis();
+        }
+
+        private boolean mismaPassword(String otra) {
+            return MessageDigest.isEqual(this.password, otra.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public GestorSesionesBonita(@Value("${bonita.sesiones.ttl:PT30M}") Duration ttl,
+                                @Value("${bonita.sesiones.margen-renovacion:PT5M}") Duration margenRenovacion,
+                                @Value("${bonita.sesiones.inactividad-max:PT2H}") Duration inactividadMax) {
+        this.ttlMs = ttl.toMillis();
+        this.margenRenovacionMs = margenRenovacion.toMillis();
+        this.inactividadMaxMs = inactividadMax.toMillis();
+    }
+
+    /**
+     * Devuelve la sesión compartida del usuario, o hace login si no hay una vigente.
+     * Con una password distinta a la guardada siempre se vuelve a loguear, así una
+     * credencial incorrecta nunca obtiene la sesión de otro. La sesión reemplazada se cierra
+     * con logout, como en renovar.
+     */
+    BonitaSession abrir(String username, String password, BiFunction<String, String, BonitaSession> login,
+                        Consumer<BonitaSession> logout) {
+        Entrada actual = this.sesiones.get(username);
+        if (actual != null && actual.mismaPassword(password) && !this.porVencer(actual.sesion)) {
+            synchronized (actual) {
+                if (this.sesiones.get(username) == actual) {
+                    actual.referencias++;
+                    actual.ultimoUso = System.currentTimeMillis();
+                    return actual.sesion;
+                }
+            }
+        }
+
+        BonitaSession nueva = login.apply(username, password);
+        BonitaSession[] reemplazada = new BonitaSession[1];
+        Entrada entrada = this.sesiones.compute(username, (u, previa) -> {
+            Entrada e = new Entrada(password, nueva);
+            e.referencias = previa == null ? 1 : previa.referencias + 1;
+            if (previa != null) reemplazada[0] = previa.sesion;
+            return e;
+        });
+        // fuera del compute: no se hace I/O con el mapa bloqueado
+        if (reemplazada[0] != null) logout.accept(reemplazada[0]);
+        return entrada.sesion;
+    }
+
+    /**
+     * Sesión a usar para una llamada: la compartida del usuario si existe (puede ser más
+     * nueva que la guardada en la sesión HTTP); si no, la recibida.
+     */
+    BonitaSession vigente(BonitaSession bonitaSession) {
+        Entrada entrada = this.sesiones.get(bonitaSession.username());
+        if (entrada == null) return bonitaSession;
+        entrada.ultimoUso = System.currentTimeMillis();
+        return entrada.sesion;
+    }
+
+    /**
+     * Vuelve a loguear al usuario si la sesión que falló (la que se envió) sigue siendo la
+     * actual, y cierra la reemplazada con logout. Devuelve false si no hay credenciales
+     * para ese usuario en esta instancia.
+     */
+    boolean renovar(BonitaSession fallida, BiFunction<String, String, BonitaSession> login,
+                    Consumer<BonitaSession> logout) {
+        Entrada entrada = this.sesiones.get(fallida.username());
+        if (entrada == null) return false;
+
+        BonitaSession reemplazada;
+        entrada.lock.lock();
+        try {
+            // otro hilo ya la renovó mientras esperábamos
+            if (!entrada.sesion.xBonitaToken().equals(fallida.xBonitaToken())) return true;
+            reemplazada = entrada.sesion;
+            entrada.sesion = login.apply(fallida.username(), new String(entrada.password, StandardCharsets.UTF_8));
+        } finally {
+            entrada.lock.unlock();
+        }
+        // fuera del lock: si falla solo queda una sesión huérfana que Bonita vence sola
+        logout.accept(reemplazada);
+        return true;
+    }
+
+    /**
+     * Libera una referencia del usuario; si era la última devuelve la sesión para cerrarla en Bonita.
+     */
+    Optional<BonitaSession> cerrar(String username) {
+        Entrada[] cerrada = new Entrada[1];
+        this.sesiones.computeIfPresent(username, (u, entrada) -> {
+            synchronized (entrada) {
+                entrada.referencias--;
+                if (entrada.referencias > 0) return entrada;
+            }
+            cerrada[0] = entrada;
+            return null;
+        });
+        return Optional.ofNullable(cerrada[0]).map(e -> e.sesion);
+    }
+
+    List<BonitaSession> porVencer() {
+        return this.sesiones.values().stream()
+                .map(e -> e.sesion)
+                .filter(this::porVencer)
+                .toList();
+    }
+
+    /**
+     * Quita las sesiones sin uso hace más de inactividad-max (usuarios que nunca hicieron logout).
+     */
+    List<BonitaSession> expirarInactivas() {
+        long limite = System.currentTimeMillis() - this.inactividadMaxMs;
+        List<BonitaSession> expiradas = new ArrayList<>();
+        this.sesiones.forEach((username, entrada) -> {
+            if (entrada.ultimoUso < limite && this.sesiones.remove(username, entrada)) {
+                expiradas.add(entrada.sesion);
+            }
+        });
+        return expiradas;
+    }
+
+    private boolean porVencer(BonitaSession bonitaSession) {
+        long edad = System.currentTimeMillis() - bonitaSession.createdAtEpochMs();
+        return edad >= this.ttlMs - this.margenRenovacionMs;
+    }
+}
@@ -1,6 +1,14 @@
 package grupo16.dssd_backend.services;
 
 import grupo16.dssd_backend.dtos.BonitaSession;
+import grupo16.dssd_backend.dtos.CasoBonitaDTO;
+import grupo16.dssd_backend.dtos.EstadisticasCacheDTO;
+import grupo16.dssd_backend.dtos.EstadisticasPoolDTO;
+import grupo16.dssd_backend.dtos.ProyectoDTO;
+import grupo16.dssd_backend.dtos.TareaBonitaDTO;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface I_BonitaService {
 
@@ -8,7 +16,51 @@ public interface I_BonitaService {
 
     void logout(BonitaSession session);
 
-    Long iniciarProcesoCreacionProyecto(String nombre);
+    /**
+     * Inicia el caso con el proyecto completo: una cantidad fija de llamadas, sin importar
+     * cuántas actividades tenga el plan.
+     */
+    Long iniciarProcesoCreacionProyecto(ProyectoDTO proyecto);
+
+    /**
+     * Primera mitad de iniciarProcesoCreacionProyecto: instancia el caso y devuelve su caseId.
+     * antesDeInstanciar corre justo antes del POST de instanciación; desde ahí, cualquier error
+     * que no sea una respuesta de Bonita puede haber dejado el caso creado.
+     */
+    Long instanciarCasoCreacionProyecto(ProyectoDTO proyecto, Runnable antesDeInstanciar);
+
+    /**
+     * Segunda mitad: espera la tarea ready, la asigna a userId (o al usuario de la sesión si es
+     * null), setea las variables y la ejecuta. Se puede reintentar sobre el mismo caso sin
+     * instanciar otro.
+     */
+    void completarCasoCreacionProyecto(Long caseId, ProyectoDTO proyecto, String userId);
+
+    /**
+     * ID en Bonita de un usuario, consultado con la sesión actual (cacheado).
+     */
+    Optional<String> buscarIdUsuario(String username);
+
+    /**
+     * false si algún circuito de los pasos de creación está abierto: conviene encolar.
+     */
+    boolean aceptaCreaciones();
+
+    /**
+     * Casos del proceso de creación (activos o archivados), los modificados más recientemente primero.
+     */
+    List<CasoBonitaDTO> buscarCasosRecientes(boolean archivados, int pagina, int tamanio);
+
+    /**
+     * Tareas humanas del proceso de creación (activas o terminadas), las modificadas más recientemente primero.
+     */
+    List<TareaBonitaDTO> buscarTareasRecientes(boolean terminadas, int pagina, int tamanio);
+
+    void invalidarCacheProcesos();
+
+    EstadisticasCacheDTO estadisticasCacheProcesos();
+
+    EstadisticasPoolDTO estadisticasPoolHttp();
 
 //    Optional<String> getEnabledProcessIdByName(String processName);
 
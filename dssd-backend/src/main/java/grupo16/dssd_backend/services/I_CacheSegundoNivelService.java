@@ -0,0 +1,15 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.EstadisticasRegionDTO;
+
+import java.util.List;
+
+public interface I_CacheSegundoNivelService {
+
+    List<EstadisticasRegionDTO> estadisticas();
+
+    void invalidar();
+
+    void invalidar(Class<?> entidad);
+
+}
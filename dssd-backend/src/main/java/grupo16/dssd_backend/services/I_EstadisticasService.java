@@ -0,0 +1,13 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.ResumenEstadisticasDTO;
+
+public interface I_EstadisticasService {
+
+    /**
+     * Resumen precalculado para los tableros: proyectos por ubicación (siempre el total) y
+     * actividades y colaboraciones abiertas por recurso del período (yyyy-MM) o del total.
+     */
+    ResumenEstadisticasDTO resumen(String periodo);
+
+}
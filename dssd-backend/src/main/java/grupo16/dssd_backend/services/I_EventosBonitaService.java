@@ -0,0 +1,21 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.EventoBonitaDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface I_EventosBonitaService {
+
+    enum Recepcion {ACEPTADO, DUPLICADO, RECHAZADO}
+
+    /**
+     * Encola un evento de Bonita para procesarlo en segundo plano. RECHAZADO si la cola está
+     * llena (Bonita debe reintentar); DUPLICADO si ya se recibió hace poco.
+     */
+    Recepcion recibir(EventoBonitaDTO evento);
+
+    /**
+     * Suscribe al usuario a las notificaciones por Server-Sent Events.
+     */
+    SseEmitter suscribir(String username);
+
+}
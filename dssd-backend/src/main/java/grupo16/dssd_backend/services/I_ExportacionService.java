@@ -0,0 +1,17 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.FiltroExportacionDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface I_ExportacionService {
+
+    enum Formato { NDJSON, CSV }
+
+    /**
+     * Escribe los proyectos y actividades que cumplen el filtro a medida que se leen de la base.
+     */
+    void exportar(FiltroExportacionDTO filtro, Formato formato, OutputStream out) throws IOException;
+
+}
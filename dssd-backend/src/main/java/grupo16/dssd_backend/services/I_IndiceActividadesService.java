@@ -0,0 +1,19 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.ActividadIndexadaDTO;
+import grupo16.dssd_backend.models.Recurso;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface I_IndiceActividadesService {
+
+    /**
+     * Actividades cuyo rango [fechaInicio, fechaFin] se solapa con [desde, hasta], ordenadas por
+     * fecha de inicio. recurso y requiereColaboracion en null no filtran. Con desde == hasta es
+     * una consulta puntual: las actividades en curso ese día.
+     */
+    List<ActividadIndexadaDTO> solapadas(Recurso recurso, LocalDate desde, LocalDate hasta,
+                                         Boolean requiereColaboracion, int limite);
+
+}
@@ -1,9 +1,33 @@
 package grupo16.dssd_backend.services;
 
+import grupo16.dssd_backend.dtos.EstadoCreacionDTO;
+import grupo16.dssd_backend.dtos.FiltroProyectosDTO;
+import grupo16.dssd_backend.dtos.PaginaDTO;
 import grupo16.dssd_backend.dtos.ProyectoDTO;
+import grupo16.dssd_backend.dtos.ProyectoResumenDTO;
+import grupo16.dssd_backend.dtos.ReporteCreacionMasivaDTO;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface I_ProyectoService {
 
-    void createProject(ProyectoDTO proyectoDTO);
+    /**
+     * Crea el proyecto e inicia su caso. Si Bonita no está disponible lo encola
+     * (estado PENDIENTE) para que el outbox inicie el caso más tarde.
+     */
+    EstadoCreacionDTO createProject(ProyectoDTO proyectoDTO);
+
+    Long createProjectAsync(ProyectoDTO proyectoDTO);
+
+    ReporteCreacionMasivaDTO createProjects(List<ProyectoDTO> proyectosDTO);
+
+    Optional<EstadoCreacionDTO> obtenerEstadoCreacion(Long id);
+
+    PaginaDTO<ProyectoResumenDTO> listarProyectos(FiltroProyectosDTO filtro, Long cursor, int tamanio);
+
+    Optional<ProyectoResumenDTO> obtenerProyecto(Long id);
+
+    Optional<ProyectoResumenDTO> obtenerProyectoPorCaso(Long caseId);
 
 }
@@ -0,0 +1,137 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.ActividadIndexadaDTO;
+import grupo16.dssd_backend.helpers.ArbolIntervalos;
+import grupo16.dssd_backend.models.Recurso;
+import grupo16.dssd_backend.repositories.ActividadRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria de actividades por {@link Recurso}: un árbol de intervalos por recurso,
+ * cargado al arrancar y actualizado con cada proyecto guardado (después del commit).
+ * Mientras no termina la carga inicial, las consultas van a la base.
+ */
+@Service
+class IndiceActividadesService implements I_IndiceActividadesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceActividadesService.class);
+
+    private final ActividadRepository actividadRepository;
+    private final TransactionTemplate tx;
+    private final EnumMap<Recurso, ArbolIntervalos<ActividadIndexadaDTO>> arboles = new EnumMap<>(Recurso.class);
+    private final EnumMap<Recurso, ReentrantReadWriteLock> locks = new EnumMap<>(Recurso.class);
+    // lo que hay indexado por ID, para que carga inicial y eventos no dupliquen
+    private final Map<Long, ActividadIndexadaDTO> indexadas = new ConcurrentHashMap<>();
+    private volatile boolean listo;
+
+    public IndiceActividadesService(ActividadRepository actividadRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.actividadRepository = actividadRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setReadOnly(true);
+        for (Recurso recurso : Recurso.values()) {
+            this.arboles.put(recurso, new ArbolIntervalos<>());
+            this.locks.put(recurso, new ReentrantReadWriteLock());
+        }
+        meterRegistry.gauge("actividades.indice.tamanio", this.indexadas, Map::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        long inicio = System.nanoTime();
+        this.tx.executeWithoutResult(status -> {
+            try (Stream<ActividadIndexadaDTO> actividades = this.actividadRepository.streamIndexables()) {
+                actividades.forEach(this::indexar);
+            }
+        });
+        this.listo = true;
+        logger.info("Índice de actividades cargado: {} actividades en {} ms",
+                this.indexadas.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alGuardarProyecto(ProyectoGuardadoEvento evento) {
+        evento.actividades().forEach(this::indexar);
+    }
+
+    @Override
+    public List<ActividadIndexadaDTO> solapadas(Recurso recurso, LocalDate desde, LocalDate hasta,
+                                                Boolean requiereColaboracion, int limite) {
+        if (!this.listo) {
+            return this.actividadRepository.buscarSolapadas(recurso, desde, hasta, requiereColaboracion, Limit.of(limite));
+        }
+
+        long d = desde.toEpochDay();
+        long h = hasta.toEpochDay();
+        Predicate<ActividadIndexadaDTO> filtro = requiereColaboracion == null
+                ? a -> true
+                : a -> requiereColaboracion.equals(Boolean.TRUE.equals(a.requiereColaboracion()));
+
+        List<ActividadIndexadaDTO> resultado = new ArrayList<>();
+        Collection<Recurso> recursos = recurso != null ? List.of(recurso) : this.arboles.keySet();
+        for (Recurso r : recursos) {
+            // cada árbol ya devuelve hasta limite ordenado: alcanza con cortar cada uno ahí
+            ReentrantReadWriteLock.ReadLock lectura = this.locks.get(r).readLock();
+            lectura.lock();
+            try {
+                this.arboles.get(r).solapados(d, h, filtro, resultado, resultado.size() + limite);
+            } finally {
+                lectura.unlock();
+            }
+        }
+        if (recursos.size() > 1) {
+            resultado.sort(Comparator.comparing(ActividadIndexadaDTO::fechaInicio).thenComparing(ActividadIndexadaDTO::id));
+        }
+        return resultado.size() > limite ? List.copyOf(resultado.subList(0, limite)) : resultado;
+    }
+
+    private void indexar(ActividadIndexadaDTO actividad) {
+        if (actividad.id() == null || actividad.recurso() == null
+                || actividad.fechaInicio() == null || actividad.fechaFin() == null) {
+            return;
+        }
+        long inicio = actividad.fechaInicio().toEpochDay();
+        long fin = actividad.fechaFin().toEpochDay();
+        if (fin < inicio) {
+            logger.warn("Actividad {} con fechas invertidas, no se indexa", actividad.id());
+            return;
+        }
+
+        // escrituras serializadas entre sí (son pocas); las lecturas solo esperan al árbol que cambia
+        synchronized (this.indexadas) {
+            ActividadIndexadaDTO anterior = this.indexadas.put(actividad.id(), actividad);
+            if (anterior != null) {
+                this.escribir(anterior.recurso(), arbol -> arbol.eliminar(anterior.fechaInicio().toEpochDay(), anterior.id()));
+            }
+            this.escribir(actividad.recurso(), arbol -> arbol.insertar(inicio, fin, actividad.id(), actividad));
+        }
+    }
+
+    private void escribir(Recurso recurso, Consumer<ArbolIntervalos<ActividadIndexadaDTO>> cambio) {
+        ReentrantReadWriteLock.WriteLock escritura = this.locks.get(recurso).writeLock();
+        escritura.lock();
+        try {
+            cambio.accept(this.arboles.get(recurso));
+        } finally {
+            escritura.unlock();
+        }
+    }
+}
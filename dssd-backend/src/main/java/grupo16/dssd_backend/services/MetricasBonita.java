@@ -0,0 +1,59 @@
+package grupo16.dssd_backend.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de la orquestación contra Bonita: un timer por paso (con histograma de
+ * percentiles) etiquetado por endpoint y resultado, errores por código de estado
+ * y las creaciones de proyecto en curso.
+ */
+@Component
+class MetricasBonita {
+
+    private final MeterRegistry registry;
+    private final AtomicInteger creacionesEnCurso = new AtomicInteger();
+
+    public MetricasBonita(MeterRegistry registry) {
+        this.registry = registry;
+        registry.gauge("proyectos.creaciones.en_curso", this.creacionesEnCurso);
+    }
+
+    <T> T medir(String paso, String endpoint, Supplier<T> llamada) {
+        Timer.Sample muestra = Timer.start(this.registry);
+        String resultado = "ok";
+        try {
+            return llamada.get();
+        } catch (RuntimeException e) {
+            resultado = "error";
+            Counter.builder("bonita.errores")
+                    .tag("endpoint", endpoint)
+                    .tag("status", e instanceof RestClientResponseException re ? String.valueOf(re.getStatusCode().value()) : "sin_respuesta")
+                    .register(this.registry)
+                    .increment();
+            throw e;
+        } finally {
+            muestra.stop(Timer.builder("bonita.paso")
+                    .tag("paso", paso)
+                    .tag("endpoint", endpoint)
+                    .tag("resultado", resultado)
+                    .publishPercentileHistogram()
+                    .register(this.registry));
+        }
+    }
+
+    <T> T medirCreacion(Supplier<T> creacion) {
+        this.creacionesEnCurso.incrementAndGet();
+        try {
+            return this.medir("creacion", "total", creacion);
+        } finally {
+            this.creacionesEnCurso.decrementAndGet();
+        }
+    }
+}
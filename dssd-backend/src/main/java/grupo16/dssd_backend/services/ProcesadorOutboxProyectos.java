@@ -0,0 +1,215 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.BonitaSession;
+import grupo16.dssd_backend.dtos.ProyectoDTO;
+import grupo16.dssd_backend.helpers.BonitaSessionHolder;
+import grupo16.dssd_backend.models.EstadoOutbox;
+import grupo16.dssd_backend.models.EstadoProyecto;
+import grupo16.dssd_backend.models.OutboxCreacionProyecto;
+import grupo16.dssd_backend.repositories.OutboxCreacionProyectoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drena el outbox de creación de proyectos: inicia el caso en Bonita y completa el caseId.
+ * Las filas que fallan se reintentan con backoff exponencial; como viven en la base,
+ * sobreviven a reinicios (una fila en PROCESANDO con lease vencido se vuelve a tomar).
+ * <p>
+ * Instanciar no es idempotente: el caseId se guarda en la fila apenas se obtiene y los
+ * reintentos siguen desde la tarea. Si un intento quedó cortado durante la instanciación
+ * sin saber si el caso existe, la fila pasa a FALLIDO en lugar de instanciar otro.
+ * <p>
+ * Los casos se inician con una cuenta de servicio (proyectos.async.usuario/password) y la
+ * tarea se asigna al creador: la fila no guarda tokens de sesión. Sin cuenta configurada
+ * las filas quedan pendientes.
+ */
+@Component
+class ProcesadorOutboxProyectos {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcesadorOutboxProyectos.class);
+
+    private final OutboxCreacionProyectoRepository outboxRepository;
+    private final I_BonitaService bonitaService;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate tx;
+    private final int tamanioLote;
+    private final int maxIntentos;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration lease;
+    private final String usuario;
+    private final String password;
+
+    private BonitaSession sesion;
+    private boolean avisoSinCuenta;
+
+    private record Trabajo(Long outboxId, ProyectoDTO proyecto, String creador, String creadorUserId,
+                           Long caseId, boolean instanciacionIniciada) {}
+
+    public ProcesadorOutboxProyectos(OutboxCreacionProyectoRepository outboxRepository,
+                                     I_BonitaService bonitaService,
+                                     @Qualifier("creacionProyectoExecutor") ThreadPoolTaskExecutor executor,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${proyectos.async.tamanio-lote:20}") int tamanioLote,
+                                     @Value("${proyectos.async.max-intentos:8}") int maxIntentos,
+                                     @Value("${proyectos.async.backoff-base:PT5S}") Duration backoffBase,
+                                     @Value("${proyectos.async.backoff-max:PT10M}") Duration backoffMax,
+                                     @Value("${proyectos.async.lease:PT5M}") Duration lease,
+                                     @Value("${proyectos.async.usuario:}") String usuario,
+                                     @Value("${proyectos.async.password:}") String password) {
+        this.outboxRepository = outboxRepository;
+        this.bonitaService = bonitaService;
+        this.executor = executor;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+        this.maxIntentos = maxIntentos;
+        this.backoffBase = backoffBase;
+        this.backoffMax = backoffMax;
+        this.lease = lease;
+        this.usuario = usuario;
+        this.password = password;
+    }
+
+    @Scheduled(fixedDelayString = "${proyectos.async.intervalo-sondeo:PT2S}")
+    public void drenar() {
+        // con el circuito abierto no reclamamos filas: solo sumarían intentos fallidos
+        if (!this.bonitaService.aceptaCreaciones()) return;
+        BonitaSession cuenta = this.sesionServicio();
+        if (cuenta == null) return;
+
+        int capacidad = Math.min(this.tamanioLote, this.capacidadLibre());
+        if (capacidad <= 0) return;
+
+        List<Trabajo> trabajos = this.tx.execute(status -> {
+            Instant ahora = Instant.now();
+            List<OutboxCreacionProyecto> vencidos = this.outboxRepository.buscarVencidos(
+                    EnumSet.of(EstadoOutbox.PENDIENTE, EstadoOutbox.PROCESANDO), ahora, PageRequest.of(0, capacidad));
+            vencidos.forEach(o -> o.reclamar(ahora.plus(this.lease)));
+            return vencidos.stream()
+                    // el contrato lleva el plan completo: se arma acá, con las actividades a mano
+                    .map(o -> new Trabajo(o.getId(), ProyectoDTO.de(o.getProyecto()), o.getUsername(),
+                            o.getBonitaUserId(), o.getCaseId(), o.isInstanciacionIniciada()))
+                    .toList();
+        });
+
+        if (trabajos == null) return;
+        trabajos.forEach(t -> this.executor.execute(() -> this.procesar(t, cuenta)));
+    }
+
+    // GestorSesionesBonita la renueva como a cualquier usuario; si el login falla se reintenta en el próximo sondeo
+    private synchronized BonitaSession sesionServicio() {
+        if (this.usuario.isBlank()) {
+            if (!this.avisoSinCuenta) {
+                logger.warn("proyectos.async.usuario no configurado: las creaciones diferidas quedan pendientes");
+                this.avisoSinCuenta = true;
+            }
+            return null;
+        }
+        if (this.sesion == null) {
+            try {
+                this.sesion = this.bonitaService.loginAndReturnCookies(this.usuario, this.password);
+            } catch (RuntimeException e) {
+                logger.warn("No se pudo iniciar la sesión de servicio del outbox", e);
+            }
+        }
+        return this.sesion;
+    }
+
+    private void procesar(Trabajo trabajo, BonitaSession cuenta) {
+        // true entre el POST de instanciación y el guardado del caseId: un error ahí es ambiguo
+        AtomicBoolean instanciando = new AtomicBoolean();
+        try {
+            Long caseId = trabajo.caseId();
+            if (caseId == null) {
+                if (trabajo.instanciacionIniciada()) {
+                    this.tx.executeWithoutResult(status -> this.outboxRepository.findById(trabajo.outboxId())
+                            .ifPresent(o -> this.marcarFallido(o, "Instanciación interrumpida: puede existir un caso en Bonita sin registrar")));
+                    logger.error("Outbox {}: instanciación interrumpida en un intento anterior, no se reintenta", trabajo.outboxId());
+                    return;
+                }
+                caseId = BonitaSessionHolder.ejecutarCon(cuenta,
+                        () -> this.bonitaService.instanciarCasoCreacionProyecto(trabajo.proyecto(), () -> {
+                            this.tx.executeWithoutResult(status -> this.outboxRepository.findById(trabajo.outboxId())
+                                    .ifPresent(OutboxCreacionProyecto::iniciarInstanciacion));
+                            instanciando.set(true);
+                        }));
+                Long instanciado = caseId;
+                this.tx.executeWithoutResult(status -> this.outboxRepository.findById(trabajo.outboxId())
+                        .ifPresent(o -> o.registrarCaso(instanciado)));
+                instanciando.set(false);
+                logger.info("Outbox {}: caso {} instanciado", trabajo.outboxId(), caseId);
+            }
+
+            Long caso = caseId;
+            BonitaSessionHolder.ejecutarCon(cuenta, () -> {
+                String asignado = trabajo.creadorUserId() != null ? trabajo.creadorUserId()
+                        : this.bonitaService.buscarIdUsuario(trabajo.creador())
+                                .orElseThrow(() -> new IllegalStateException("No se encontró el usuario " + trabajo.creador() + " en Bonita"));
+                this.bonitaService.completarCasoCreacionProyecto(caso, trabajo.proyecto(), asignado);
+                return null;
+            });
+
+            this.tx.executeWithoutResult(status -> this.outboxRepository.findById(trabajo.outboxId()).ifPresent(o -> {
+                o.getProyecto().setCaseId(caso);
+                o.getProyecto().setEstado(EstadoProyecto.CREADO);
+                this.outboxRepository.delete(o);
+            }));
+            logger.info("Outbox {}: caso {} iniciado", trabajo.outboxId(), caseId);
+        } catch (RuntimeException e) {
+            logger.warn("Outbox {}: falló el inicio del caso", trabajo.outboxId(), e);
+            boolean ambiguo = instanciando.get() && !sinCasoCreado(e);
+            this.tx.executeWithoutResult(status -> this.outboxRepository.findById(trabajo.outboxId()).ifPresent(o -> {
+                if (ambiguo) {
+                    this.marcarFallido(o, "Error durante la instanciación, puede existir un caso en Bonita: " + e.getMessage());
+                    return;
+                }
+                if (instanciando.get()) o.cancelarInstanciacion();
+                this.registrarFallo(o, e);
+            }));
+        }
+    }
+
+    // Errores que garantizan que la instanciación no creó el caso: Bonita respondió con un
+    // error, o el circuit breaker/bulkhead rechazó la llamada antes de hacerla
+    private static boolean sinCasoCreado(RuntimeException e) {
+        return e instanceof RestClientResponseException || e instanceof BonitaNoDisponibleException;
+    }
+
+    private void registrarFallo(OutboxCreacionProyecto o, RuntimeException e) {
+        boolean definitivo = o.getIntentos() + 1 >= this.maxIntentos;
+        o.registrarFallo(e.getMessage(), Instant.now().plus(this.backoff(o.getIntentos())), definitivo);
+        if (definitivo) {
+            o.getProyecto().setEstado(EstadoProyecto.ERROR);
+        }
+    }
+
+    private void marcarFallido(OutboxCreacionProyecto o, String error) {
+        o.registrarFallo(error, Instant.now(), true);
+        o.getProyecto().setEstado(EstadoProyecto.ERROR);
+    }
+
+    private Duration backoff(int intentos) {
+        Duration espera = this.backoffBase.multipliedBy(1L << Math.min(intentos, 20));
+        return espera.compareTo(this.backoffMax) > 0 ? this.backoffMax : espera;
+    }
+
+    private int capacidadLibre() {
+        var pool = this.executor.getThreadPoolExecutor();
+        return pool.getQueue().remainingCapacity() + (pool.getMaximumPoolSize() - pool.getActiveCount());
+    }
+}
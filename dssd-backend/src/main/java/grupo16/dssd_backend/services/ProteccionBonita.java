@@ -0,0 +1,100 @@
+package grupo16.dssd_backend.services;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker por paso ("bonita-&lt;paso&gt;") y bulkhead de concurrencia alrededor de cada
+ * llamada a Bonita. Login y logout usan su propio bulkhead, así una Bonita lenta que llena
+ * el de las creaciones no deja a los usuarios sin poder entrar o salir.
+ * <p>
+ * Los rechazos se traducen a {@link BonitaNoDisponibleException}. Los 4xx no cuentan como
+ * fallas del circuito (ver ignore-exceptions en application.properties).
+ */
+@Component
+class ProteccionBonita {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProteccionBonita.class);
+
+    static final String BULKHEAD_PROCESOS = "bonita";
+    static final String BULKHEAD_SESIONES = "bonita-sesiones";
+
+    private static final Set<String> PASOS_SESION = Set.of("login", "logout", "buscar_usuario");
+    // pasos de una creación: si alguno tiene el circuito abierto no tiene sentido intentarla
+    private static final List<String> PASOS_CREACION = List.of(
+            "buscar_proceso", "instanciar_proceso", "buscar_tareas", "asignar_tarea", "variable_caso", "ejecutar_tarea");
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final MeterRegistry meterRegistry;
+
+    public ProteccionBonita(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads, MeterRegistry meterRegistry) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.meterRegistry = meterRegistry;
+        // los circuitos se crean a demanda: les colgamos el contador de transiciones al crearse
+        circuitBreakers.getAllCircuitBreakers().forEach(this::observar);
+        circuitBreakers.getEventPublisher().onEntryAdded(evento -> this.observar(evento.getAddedEntry()));
+    }
+
+    <T> T ejecutar(String paso, Supplier<T> llamada) {
+        CircuitBreaker circuito = this.circuitBreakers.circuitBreaker("bonita-" + paso);
+        Bulkhead bulkhead = this.bulkheads.bulkhead(PASOS_SESION.contains(paso) ? BULKHEAD_SESIONES : BULKHEAD_PROCESOS);
+        try {
+            // el bulkhead va por fuera: un rechazo por concurrencia no cuenta como falla de Bonita
+            return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuito, llamada)).get();
+        } catch (CallNotPermittedException e) {
+            this.rechazo(paso, "circuito");
+            throw new BonitaNoDisponibleException("Circuito abierto para el paso " + paso, e);
+        } catch (BulkheadFullException e) {
+            this.rechazo(paso, "bulkhead");
+            throw new BonitaNoDisponibleException("Demasiadas llamadas concurrentes a Bonita (" + bulkhead.getName() + ")", e);
+        }
+    }
+
+    /**
+     * Indica si vale la pena intentar una creación: ningún circuito de sus pasos está abierto.
+     */
+    boolean aceptaCreaciones() {
+        return PASOS_CREACION.stream()
+                .map(paso -> this.circuitBreakers.find("bonita-" + paso))
+                .flatMap(Optional::stream)
+                .map(CircuitBreaker::getState)
+                .noneMatch(estado -> estado == CircuitBreaker.State.OPEN || estado == CircuitBreaker.State.FORCED_OPEN);
+    }
+
+    private void rechazo(String paso, String motivo) {
+        Counter.builder("bonita.rechazos")
+                .tag("paso", paso)
+                .tag("motivo", motivo)
+                .register(this.meterRegistry)
+                .increment();
+    }
+
+    private void observar(CircuitBreaker circuito) {
+        circuito.getEventPublisher().onStateTransition(evento -> {
+            var transicion = evento.getStateTransition();
+            logger.warn("Circuito {}: {} -> {}", circuito.getName(), transicion.getFromState(), transicion.getToState());
+            Counter.builder("bonita.circuito.transiciones")
+                    .tag("circuito", circuito.getName())
+                    .tag("desde", transicion.getFromState().name())
+                    .tag("hacia", transicion.getToState().name())
+                    .register(this.meterRegistry)
+                    .increment();
+        });
+    }
+}
@@ -0,0 +1,17 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.ActividadIndexadaDTO;
+import grupo16.dssd_backend.models.Proyecto;
+
+import java.util.List;
+
+/**
+ * Se publica al guardar un proyecto nuevo; los listeners lo reciben después del commit.
+ */
+public record ProyectoGuardadoEvento(Long proyectoId, String ubicacion, List<ActividadIndexadaDTO> actividades) {
+
+    static ProyectoGuardadoEvento de(Proyecto proyecto) {
+        return new ProyectoGuardadoEvento(proyecto.getId(), proyecto.getUbicacion(),
+                proyecto.getActividades().stream().map(ActividadIndexadaDTO::de).toList());
+    }
+}
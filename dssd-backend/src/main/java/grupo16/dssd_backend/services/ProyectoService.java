@@ -1,34 +1,242 @@
 package grupo16.dssd_backend.services;
 
+import grupo16.dssd_backend.dtos.BonitaSession;
+import grupo16.dssd_backend.dtos.EstadoCreacionDTO;
+import grupo16.dssd_backend.dtos.FiltroProyectosDTO;
+import grupo16.dssd_backend.dtos.PaginaDTO;
 import grupo16.dssd_backend.dtos.ProyectoDTO;
+import grupo16.dssd_backend.dtos.ProyectoResumenDTO;
+import grupo16.dssd_backend.dtos.ReporteCreacionMasivaDTO;
+import grupo16.dssd_backend.dtos.ResultadoCreacionDTO;
+import grupo16.dssd_backend.helpers.BonitaSessionHolder;
+import grupo16.dssd_backend.models.EstadoProyecto;
+import grupo16.dssd_backend.models.OutboxCreacionProyecto;
 import grupo16.dssd_backend.models.Proyecto;
+import grupo16.dssd_backend.repositories.OutboxCreacionProyectoRepository;
 import grupo16.dssd_backend.repositories.ProyectoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class ProyectoService implements I_ProyectoService{
 
     private final ProyectoRepository proyectoRepository;
+    private final OutboxCreacionProyectoRepository outboxRepository;
     private final I_BonitaService bonitaService;
+    private final Executor creacionMasivaExecutor;
+    private final TransactionTemplate tx;
+    private final int tamanioLote;
+    private final Timer timerGuardado;
+    private final Counter creacionesEncoladas;
+    private final ApplicationEventPublisher eventos;
 
-    public ProyectoService(ProyectoRepository proyectoRepository, I_BonitaService bonitaService) {
+    public ProyectoService(ProyectoRepository proyectoRepository, OutboxCreacionProyectoRepository outboxRepository,
+                           I_BonitaService bonitaService,
+                           @Qualifier("creacionMasivaExecutor") Executor creacionMasivaExecutor,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${proyectos.bulk.tamanio-lote:50}") int tamanioLote,
+                           MeterRegistry meterRegistry,
+                           ApplicationEventPublisher eventos) {
+        this.eventos = eventos;
+        this.timerGuardado = Timer.builder("proyectos.guardado")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.creacionesEncoladas = Counter.builder("proyectos.creaciones.encoladas")
+                .description("Creaciones aceptadas en modo degradado con Bonita no disponible")
+                .register(meterRegistry);
         this.proyectoRepository = proyectoRepository;
+        this.outboxRepository = outboxRepository;
         this.bonitaService = bonitaService;
+        this.creacionMasivaExecutor = creacionMasivaExecutor;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
     }
 
     @Override
     @Transactional
-    public void createProject(ProyectoDTO proyectoDTO) {
+    public EstadoCreacionDTO createProject(ProyectoDTO proyectoDTO) {
+
+        // Con el circuito abierto ni lo intentamos: el caso lo inicia el outbox cuando Bonita vuelva
+        if (!this.bonitaService.aceptaCreaciones()) {
+            return this.encolar(proyectoDTO);
+        }
 
         // AGREGAR VALLIDACIÓN DE DATOS
         Proyecto newProyecto = new Proyecto(proyectoDTO);
 
-        Long caseId = this.bonitaService.iniciarProcesoCreacionProyecto(newProyecto.getNombre());
+        Long caseId;
+        try {
+            caseId = this.bonitaService.iniciarProcesoCreacionProyecto(proyectoDTO);
+        } catch (BonitaNoDisponibleException e) {
+            // rechazado antes de instanciar: no hay caso en Bonita, es seguro encolarlo
+            return this.encolar(proyectoDTO);
+        }
 
         newProyecto.setCaseId(caseId);
+        newProyecto.setEstado(EstadoProyecto.CREADO);
+
+        // con IDs de secuencia save solo hace persist: el flush manda los INSERT (en lote) dentro del timer
+        this.timerGuardado.record(() -> this.proyectoRepository.saveAndFlush(newProyecto));
+        this.eventos.publishEvent(ProyectoGuardadoEvento.de(newProyecto));
+
+        return new EstadoCreacionDTO(newProyecto.getId(), EstadoProyecto.CREADO.name(), caseId, 0, null);
+    }
+
+    private EstadoCreacionDTO encolar(ProyectoDTO proyectoDTO) {
+        this.creacionesEncoladas.increment();
+        Long id = this.createProjectAsync(proyectoDTO);
+        return new EstadoCreacionDTO(id, EstadoProyecto.PENDIENTE.name(), null, 0, null);
+    }
+
+    @Override
+    @Transactional
+    public Long createProjectAsync(ProyectoDTO proyectoDTO) {
+        // El caso en Bonita lo inicia ProcesadorOutboxProyectos fuera de esta transacción
+        Proyecto newProyecto = new Proyecto(proyectoDTO);
+        newProyecto.setEstado(EstadoProyecto.PENDIENTE);
 
         this.proyectoRepository.save(newProyecto);
+        this.eventos.publishEvent(ProyectoGuardadoEvento.de(newProyecto));
+        this.outboxRepository.save(new OutboxCreacionProyecto(newProyecto, BonitaSessionHolder.getBonitaSession()));
+
+        return newProyecto.getId();
+    }
+
+    @Override
+    public ReporteCreacionMasivaDTO createProjects(List<ProyectoDTO> proyectosDTO) {
+        // Sin @Transactional: no retenemos una conexión mientras se habla con Bonita
+        int total = proyectosDTO.size();
+        ResultadoCreacionDTO[] resultados = new ResultadoCreacionDTO[total];
+        Proyecto[] proyectos = new Proyecto[total];
+
+        // 1. Validamos todo el lote antes de tocar Bonita
+        for (int i = 0; i < total; i++) {
+            ProyectoDTO dto = proyectosDTO.get(i);
+            if (dto == null || !dto.validate()) {
+                resultados[i] = ResultadoCreacionDTO.fallo(i, null, "Datos inválidos");
+                continue;
+            }
+            try {
+                proyectos[i] = new Proyecto(dto);
+            } catch (RuntimeException e) {
+                resultados[i] = ResultadoCreacionDTO.fallo(i, null, "Actividades inválidas: " + e.getMessage());
+            }
+        }
 
+        // 2. Iniciamos los casos en paralelo (el executor limita la concurrencia)
+        BonitaSession bonitaSession = BonitaSessionHolder.getBonitaSession();
+        List<CompletableFuture<Void>> inicios = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            if (proyectos[i] == null) continue;
+            final int indice = i;
+            ProyectoDTO dto = proyectosDTO.get(i);
+            inicios.add(CompletableFuture.runAsync(() -> {
+                Proyecto proyecto = proyectos[indice];
+                try {
+                    Long caseId = BonitaSessionHolder.ejecutarCon(bonitaSession,
+                            () -> this.bonitaService.iniciarProcesoCreacionProyecto(dto));
+                    proyecto.setCaseId(caseId);
+                    proyecto.setEstado(EstadoProyecto.CREADO);
+                } catch (RuntimeException e) {
+                    resultados[indice] = ResultadoCreacionDTO.fallo(indice, null, e.getMessage());
+                    proyectos[indice] = null;
+                }
+            }, this.creacionMasivaExecutor));
+        }
+        CompletableFuture.allOf(inicios.toArray(CompletableFuture[]::new)).join();
+
+        // 3. Persistimos los iniciados en lotes, una transacción por lote
+        List<Integer> iniciados = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            if (proyectos[i] != null) iniciados.add(i);
+        }
+        for (int desde = 0; desde < iniciados.size(); desde += this.tamanioLote) {
+            List<Integer> lote = iniciados.subList(desde, Math.min(desde + this.tamanioLote, iniciados.size()));
+            List<Proyecto> aGuardar = lote.stream().map(i -> proyectos[i]).toList();
+            try {
+                this.tx.executeWithoutResult(status -> {
+                    this.proyectoRepository.saveAll(aGuardar);
+                    aGuardar.forEach(p -> this.eventos.publishEvent(ProyectoGuardadoEvento.de(p)));
+                });
+                lote.forEach(i -> resultados[i] = ResultadoCreacionDTO.exito(i, proyectos[i].getId(), proyectos[i].getCaseId()));
+            } catch (RuntimeException e) {
+                // el caso ya existe en Bonita: devolvemos el caseId para poder reconciliarlo
+                lote.forEach(i -> resultados[i] = ResultadoCreacionDTO.fallo(i, proyectos[i].getCaseId(),
+                        "Caso iniciado pero no se pudo guardar el proyecto: " + e.getMessage()));
+            }
+        }
+
+        List<ResultadoCreacionDTO> reporte = Arrays.asList(resultados);
+        int exitosos = (int) reporte.stream().filter(ResultadoCreacionDTO::exito).count();
+        return new ReporteCreacionMasivaDTO(total, exitosos, total - exitosos, reporte);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<ProyectoResumenDTO> listarProyectos(FiltroProyectosDTO filtro, Long cursor, int tamanio) {
+        String prefijo = filtro.prefijoNombre() == null || filtro.prefijoNombre().isBlank()
+                ? null
+                : filtro.prefijoNombre().replace("!", "!!").replace("%", "!%").replace("_", "!_");
+
+        // Pedimos uno de más para saber si hay otra página sin hacer un COUNT
+        List<Long> ids = this.proyectoRepository.buscarIdsPagina(
+                cursor, filtro.ubicacion(), prefijo, filtro.recurso(), Limit.of(tamanio + 1));
+        boolean hayMas = ids.size() > tamanio;
+        List<Long> pagina = hayMas ? ids.subList(0, tamanio) : ids;
+        if (pagina.isEmpty()) {
+            return new PaginaDTO<>(List.of(), null);
+        }
+
+        List<ProyectoResumenDTO> items = this.proyectoRepository.findByIdIn(pagina).stream()
+                .sorted(Comparator.comparing(Proyecto::getId))
+                .map(ProyectoResumenDTO::de)
+                .toList();
+        return new PaginaDTO<>(items, hayMas ? pagina.get(pagina.size() - 1) : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ProyectoResumenDTO> obtenerProyecto(Long id) {
+        return this.proyectoRepository.findWithActividadesById(id).map(ProyectoResumenDTO::de);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ProyectoResumenDTO> obtenerProyectoPorCaso(Long caseId) {
+        // entidad y colección de actividades salen del cache de segundo nivel cuando están
+        return this.proyectoRepository.findByCaseId(caseId).map(ProyectoResumenDTO::de);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<EstadoCreacionDTO> obtenerEstadoCreacion(Long id) {
+        return this.proyectoRepository.findById(id).map(proyecto -> {
+            var outbox = this.outboxRepository.findByProyectoId(id);
+            // proyectos anteriores al modo async no tienen estado: ya fueron creados
+            EstadoProyecto estado = proyecto.getEstado() != null ? proyecto.getEstado() : EstadoProyecto.CREADO;
+            return new EstadoCreacionDTO(
+                    proyecto.getId(),
+                    estado.name(),
+                    proyecto.getCaseId(),
+                    outbox.map(OutboxCreacionProyecto::getIntentos).orElse(0),
+                    outbox.map(OutboxCreacionProyecto::getUltimoError).orElse(null));
+        });
     }
 }
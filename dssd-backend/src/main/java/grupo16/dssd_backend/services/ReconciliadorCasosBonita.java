@@ -0,0 +1,264 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.BonitaSession;
+import grupo16.dssd_backend.dtos.CasoBonitaDTO;
+import grupo16.dssd_backend.dtos.TareaBonitaDTO;
+import grupo16.dssd_backend.helpers.BonitaSessionHolder;
+import grupo16.dssd_backend.models.CheckpointReconciliacion;
+import grupo16.dssd_backend.models.Proyecto;
+import grupo16.dssd_backend.repositories.CheckpointReconciliacionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Trae de Bonita los cambios de casos y tareas del proceso de creación y los vuelca sobre
+ * Proyecto (estadoCaso, tareaActual), así las vistas de estado se sirven desde Postgres.
+ * <p>
+ * Cada fuente se lee de la más reciente a la más vieja hasta llegar al checkpoint, con un tope
+ * de páginas por corrida: si no se llega, la siguiente corrida sigue desde esa página. Las
+ * actualizaciones van por JDBC en lotes y solo tocan filas que cambiaron.
+ * <p>
+ * Como una corrida que retoma aplica páginas más viejas después de las nuevas, cada columna
+ * guarda el last_update_date de Bonita que la escribió (caso_actualizado para el estado,
+ * tarea_actualizada para la tarea) y un cambio más viejo que ese no se aplica.
+ */
+@Component
+@ConditionalOnProperty(name = "bonita.reconciliacion.habilitada", havingValue = "true")
+class ReconciliadorCasosBonita {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliadorCasosBonita.class);
+
+    private static final String CASOS_ACTIVOS = "casos";
+    private static final String CASOS_ARCHIVADOS = "casos-archivados";
+    private static final String TAREAS = "tareas";
+    private static final String TAREAS_TERMINADAS = "tareas-terminadas";
+
+    // con la misma marca (se reprocesa en cada corrida) solo se escribe si el valor cambió
+    private static final String ACTUALIZAR_ESTADO = """
+            update proyecto set estado_caso = ?, caso_actualizado = ?
+            where case_id = ? and (caso_actualizado is null or caso_actualizado < ?
+                or caso_actualizado = ? and estado_caso is distinct from ?)
+            """;
+    // un caso archivado ya no tiene tareas pendientes
+    private static final String ACTUALIZAR_ARCHIVADO = """
+            update proyecto set estado_caso = ?, caso_actualizado = ?, tarea_actual = null, tarea_actualizada = ?
+            where case_id = ? and (caso_actualizado is null or caso_actualizado < ?
+                or caso_actualizado = ? and (estado_caso is distinct from ? or tarea_actual is not null))
+            """;
+    private static final String ACTUALIZAR_TAREA = """
+            update proyecto set tarea_actual = ?, tarea_actualizada = ?
+            where case_id = ? and (tarea_actualizada is null or tarea_actualizada < ?
+                or tarea_actualizada = ? and tarea_actual is distinct from ?)
+            """;
+    // la tarea actual terminó y no apareció otra más nueva: el caso sigue activo sin tarea humana
+    private static final String LIMPIAR_TAREA = """
+            update proyecto set tarea_actual = null, tarea_actualizada = ?
+            where case_id = ? and tarea_actual = ? and (tarea_actualizada is null or tarea_actualizada <= ?)
+            """;
+
+    private static final ParameterizedPreparedStatementSetter<Cambio> PARAMETROS_VALOR = (ps, c) -> {
+        ps.setString(1, c.valor());
+        ps.setTimestamp(2, c.momento());
+        ps.setLong(3, c.caseId());
+        ps.setTimestamp(4, c.momento());
+        ps.setTimestamp(5, c.momento());
+        ps.setString(6, c.valor());
+    };
+    private static final ParameterizedPreparedStatementSetter<Cambio> PARAMETROS_ARCHIVADO = (ps, c) -> {
+        ps.setString(1, c.valor());
+        ps.setTimestamp(2, c.momento());
+        ps.setTimestamp(3, c.momento());
+        ps.setLong(4, c.caseId());
+        ps.setTimestamp(5, c.momento());
+        ps.setTimestamp(6, c.momento());
+        ps.setString(7, c.valor());
+    };
+    private static final ParameterizedPreparedStatementSetter<Cambio> PARAMETROS_LIMPIAR = (ps, c) -> {
+        ps.setTimestamp(1, c.momento());
+        ps.setLong(2, c.caseId());
+        ps.setString(3, c.valor());
+        ps.setTimestamp(4, c.momento());
+    };
+
+    private record Cambio(long caseId, String valor, String marca, Timestamp momento) {}
+
+    private final I_BonitaService bonitaService;
+    private final CheckpointReconciliacionRepository checkpoints;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final I_CacheSegundoNivelService cacheSegundoNivel;
+    private final String usuario;
+    private final String password;
+    private final int tamanioPagina;
+    private final int maxPaginas;
+    private final int tamanioLote;
+    private final Counter filasActualizadas;
+    private final ReentrantLock enCurso = new ReentrantLock();
+    private BonitaSession sesion;
+
+    public ReconciliadorCasosBonita(I_BonitaService bonitaService,
+                                    CheckpointReconciliacionRepository checkpoints,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    I_CacheSegundoNivelService cacheSegundoNivel,
+                                    @Value("${bonita.reconciliacion.usuario}") String usuario,
+                                    @Value("${bonita.reconciliacion.password}") String password,
+                                    @Value("${bonita.reconciliacion.tamanio-pagina:100}") int tamanioPagina,
+                                    @Value("${bonita.reconciliacion.max-paginas:10}") int maxPaginas,
+                                    @Value("${bonita.reconciliacion.tamanio-lote:200}") int tamanioLote,
+                                    MeterRegistry meterRegistry) {
+        this.bonitaService = bonitaService;
+        this.checkpoints = checkpoints;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.cacheSegundoNivel = cacheSegundoNivel;
+        this.usuario = usuario;
+        this.password = password;
+        this.tamanioPagina = tamanioPagina;
+        this.maxPaginas = maxPaginas;
+        this.tamanioLote = tamanioLote;
+        this.filasActualizadas = Counter.builder("reconciliacion.filas.actualizadas").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${bonita.reconciliacion.intervalo:PT30S}",
+               initialDelayString = "${bonita.reconciliacion.demora-inicial:PT30S}")
+    public void reconciliar() {
+        if (!this.enCurso.tryLock()) return;
+        try {
+            if (this.sesion == null) {
+                // cuenta de servicio: GestorSesionesBonita la renueva como a cualquier usuario
+                this.sesion = this.bonitaService.loginAndReturnCookies(this.usuario, this.password);
+            }
+            int actualizadas = BonitaSessionHolder.ejecutarCon(this.sesion, () ->
+                    this.reconciliarFuente(CASOS_ACTIVOS, ACTUALIZAR_ESTADO, PARAMETROS_VALOR,
+                            p -> this.bonitaService.buscarCasosRecientes(false, p, this.tamanioPagina), ReconciliadorCasosBonita::cambioCaso)
+                    + this.reconciliarFuente(CASOS_ARCHIVADOS, ACTUALIZAR_ARCHIVADO, PARAMETROS_ARCHIVADO,
+                            p -> this.bonitaService.buscarCasosRecientes(true, p, this.tamanioPagina), ReconciliadorCasosBonita::cambioCaso)
+                    + this.reconciliarFuente(TAREAS, ACTUALIZAR_TAREA, PARAMETROS_VALOR,
+                            p -> this.bonitaService.buscarTareasRecientes(false, p, this.tamanioPagina), ReconciliadorCasosBonita::cambioTarea)
+                    + this.reconciliarFuente(TAREAS_TERMINADAS, LIMPIAR_TAREA, PARAMETROS_LIMPIAR,
+                            p -> this.bonitaService.buscarTareasRecientes(true, p, this.tamanioPagina), ReconciliadorCasosBonita::cambioTarea));
+            if (actualizadas > 0) {
+                // las escrituras por JDBC no pasan por Hibernate: el cache de Proyecto quedó viejo
+                this.cacheSegundoNivel.invalidar(Proyecto.class);
+                this.filasActualizadas.increment(actualizadas);
+                logger.info("Reconciliación: {} proyectos actualizados", actualizadas);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Falló la reconciliación con Bonita", e);
+        } finally {
+            this.enCurso.unlock();
+        }
+    }
+
+    private <T> int reconciliarFuente(String fuente, String sql, ParameterizedPreparedStatementSetter<Cambio> parametros,
+                                      IntFunction<List<T>> pagina, Function<T, Cambio> aCambio) {
+        CheckpointReconciliacion checkpoint = this.checkpoints.findById(fuente).orElseGet(() -> new CheckpointReconciliacion(fuente));
+        String marca = checkpoint.getMarca();
+        String masNueva = checkpoint.getMarcaPendiente() != null ? checkpoint.getMarcaPendiente() : marca;
+
+        // por caso queda el cambio más nuevo (el primero que aparece, el orden es descendente)
+        Map<Long, Cambio> cambios = new LinkedHashMap<>();
+        int desde = checkpoint.getPaginaPendiente();
+        boolean alcanzada = false;
+        int p = desde;
+        for (; p < desde + this.maxPaginas; p++) {
+            List<T> items = pagina.apply(p);
+            for (T item : items) {
+                Cambio c = aCambio.apply(item);
+                if (c == null) continue;
+                // la marca misma se reprocesa: aplicar de nuevo es idempotente y no se pierden empates
+                if (marca != null && c.marca() != null && c.marca().compareTo(marca) < 0) {
+                    alcanzada = true;
+                    break;
+                }
+                cambios.putIfAbsent(c.caseId(), c);
+                if (c.marca() != null && (masNueva == null || c.marca().compareTo(masNueva) > 0)) masNueva = c.marca();
+            }
+            if (alcanzada || items.size() < this.tamanioPagina) {
+                alcanzada = true;
+                break;
+            }
+        }
+
+        int actualizadas = this.aplicar(sql, parametros, new ArrayList<>(cambios.values()));
+
+        String nuevaMarca = masNueva;
+        // si se cortó por el tope, el for ya avanzó p a la primera página sin leer
+        int siguiente = p;
+        boolean completa = alcanzada;
+        this.tx.executeWithoutResult(status -> {
+            if (completa) checkpoint.completar(nuevaMarca);
+            else checkpoint.continuarDesde(siguiente, nuevaMarca);
+            this.checkpoints.save(checkpoint);
+        });
+        if (!completa) {
+            logger.info("Reconciliación de {}: quedan cambios, se sigue desde la página {}", fuente, siguiente);
+        }
+        return actualizadas;
+    }
+
+    private int aplicar(String sql, ParameterizedPreparedStatementSetter<Cambio> parametros, List<Cambio> cambios) {
+        if (cambios.isEmpty()) return 0;
+        int total = 0;
+        int[][] resultados = this.jdbcTemplate.batchUpdate(sql, cambios, this.tamanioLote, parametros);
+        for (int[] lote : resultados) {
+            for (int n : lote) {
+                // algunos drivers informan SUCCESS_NO_INFO (-2) en lotes reescritos
+                total += Math.max(n, 0);
+            }
+        }
+        return total;
+    }
+
+    private static Cambio cambioCaso(CasoBonitaDTO caso) {
+        return cambio(caso.caseId(), caso.state(), caso.ultimaActualizacion());
+    }
+
+    private static Cambio cambioTarea(TareaBonitaDTO tarea) {
+        return cambio(tarea.caseId(), tarea.name(), tarea.ultimaActualizacion());
+    }
+
+    // sin fecha de Bonita no se puede ordenar contra lo ya escrito: se descarta
+    private static Cambio cambio(String id, String valor, String marca) {
+        Long caseId = parsear(id);
+        Timestamp momento = momento(marca);
+        return caseId == null || momento == null ? null : new Cambio(caseId, valor, marca, momento);
+    }
+
+    // Bonita devuelve last_update_date como "yyyy-MM-dd HH:mm:ss.SSS"
+    private static Timestamp momento(String marca) {
+        try {
+            return marca == null ? null : Timestamp.valueOf(marca);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Long parsear(String id) {
+        try {
+            return id == null ? null : Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+-- Esquema inicial, equivalente al que generaba ddl-auto=update.
+-- Idempotente: una base creada antes por Hibernate se adopta como versión 0 (baseline) y esto
+-- solo agrega lo que falte. Las tablas que ya existían se saltean en el create, así que cada
+-- columna agregada después del esquema original va también como alter ... if not exists.
+
+create sequence if not exists proyecto_seq start with 1 increment by 50;
+create sequence if not exists actividad_seq start with 1 increment by 50;
+create sequence if not exists outbox_creacion_proyecto_seq start with 1 increment by 50;
+
+create table if not exists proyecto (
+    id bigint not null,
+    nombre varchar(255),
+    case_id bigint,
+    descripcion varchar(255),
+    ubicacion varchar(255),
+    estado varchar(255),
+    estado_caso varchar(255),
+    tarea_actual varchar(255),
+    caso_actualizado timestamp(6) with time zone,
+    tarea_actualizada timestamp(6) with time zone,
+    primary key (id)
+);
+
+alter table proyecto add column if not exists estado varchar(255);
+alter table proyecto add column if not exists estado_caso varchar(255);
+alter table proyecto add column if not exists tarea_actual varchar(255);
+alter table proyecto add column if not exists caso_actualizado timestamp(6) with time zone;
+alter table proyecto add column if not exists tarea_actualizada timestamp(6) with time zone;
+
+create unique index if not exists ux_proyecto_case_id on proyecto (case_id);
+
+create table if not exists actividad (
+    id bigint not null,
+    nombre varchar(255),
+    fecha_inicio date,
+    fecha_fin date,
+    recurso varchar(255),
+    requiere_colaboracion boolean,
+    proyecto_id bigint not null references proyecto (id),
+    primary key (id)
+);
+
+create index if not exists ix_actividad_recurso_fechas on actividad (recurso, fecha_inicio, fecha_fin);
+create index if not exists ix_actividad_fechas on actividad (fecha_inicio, fecha_fin);
+-- Postgres no indexa las FK solo; lo usan la carga de actividades por proyecto y el orphanRemoval
+create index if not exists ix_actividad_proyecto on actividad (proyecto_id);
+
+create table if not exists outbox_creacion_proyecto (
+    id bigint not null,
+    proyecto_id bigint not null unique references proyecto (id),
+    estado varchar(255),
+    intentos integer not null,
+    proximo_intento timestamp(6) with time zone,
+    ultimo_error varchar(1000),
+    username varchar(255),
+    bonita_user_id varchar(255),
+    creado timestamp(6) with time zone,
+    case_id bigint,
+    instanciacion_iniciada boolean not null default false,
+    primary key (id)
+);
+
+alter table outbox_creacion_proyecto add column if not exists case_id bigint;
+alter table outbox_creacion_proyecto add column if not exists instanciacion_iniciada boolean not null default false;
+-- versiones anteriores guardaban los tokens de sesión Bonita del usuario: no se conservan
+alter table outbox_creacion_proyecto drop column if exists jsession_id;
+alter table outbox_creacion_proyecto drop column if exists x_bonita_token;
+
+create index if not exists idx_outbox_estado_proximo on outbox_creacion_proyecto (estado, proximo_intento);
+
+create table if not exists checkpoint_reconciliacion (
+    fuente varchar(255) not null,
+    marca varchar(255),
+    marca_pendiente varchar(255),
+    pagina_pendiente integer not null,
+    actualizado timestamp(6) with time zone,
+    primary key (fuente)
+);
+
+-- Sesiones HTTP (Spring Session JDBC, mismo esquema que schema-postgresql.sql)
+create table if not exists spring_session (
+    primary_id char(36) not null,
+    session_id char(36) not null,
+    creation_time bigint not null,
+    last_access_time bigint not null,
+    max_inactive_interval int not null,
+    expiry_time bigint not null,
+    principal_name varchar(100),
+    constraint spring_session_pk primary key (primary_id)
+);
+
+create unique index if not exists spring_session_ix1 on spring_session (session_id);
+create index if not exists spring_session_ix2 on spring_session (expiry_time);
+create index if not exists spring_session_ix3 on spring_session (principal_name);
+
+create table if not exists spring_session_attributes (
+    session_primary_id char(36) not null,
+    attribute_name varchar(200) not null,
+    attribute_bytes bytea not null,
+    constraint spring_session_attributes_pk primary key (session_primary_id, attribute_name),
+    constraint spring_session_attributes_fk foreign key (session_primary_id)
+        references spring_session (primary_id) on delete cascade
+);
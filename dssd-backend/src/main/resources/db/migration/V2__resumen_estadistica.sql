@@ -0,0 +1,10 @@
+-- Contadores precalculados para los tableros (ver EstadisticasService)
+create table if not exists resumen_estadistica (
+    dimension varchar(255) not null,
+    clave varchar(255) not null,
+    periodo varchar(255) not null,
+    cantidad bigint not null,
+    primary key (dimension, clave, periodo)
+);
+
+create index if not exists ix_resumen_estadistica_periodo on resumen_estadistica (periodo);
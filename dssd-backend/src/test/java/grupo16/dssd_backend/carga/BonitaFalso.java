@@ -0,0 +1,159 @@
+package grupo16.dssd_backend.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bonita en memoria con los endpoints REST que usa BonitaService: loginservice, logoutservice,
+ * process, instantiation, humanTask, caseVariable, userTask/execution e identity/user.
+ * La latencia por llamada, la tasa de errores 500 y la demora hasta que la tarea del caso
+ * queda ready son configurables.
+ */
+public class BonitaFalso implements AutoCloseable {
+
+    public static final String PROCESS_ID = "6543210987654321";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Duration latencia;
+    private final double tasaError;
+    private final Duration demoraTareaReady;
+
+    private final AtomicLong secuenciaCasos = new AtomicLong(1000);
+    // caseId -> instante (nanoTime) a partir del cual su tarea está ready
+    private final Map<Long, Long> tareasPorCaso = new ConcurrentHashMap<>();
+    private final Set<Long> tareasEjecutadas = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> llamadas = new ConcurrentHashMap<>();
+
+    public BonitaFalso(Duration latencia, double tasaError, Duration demoraTareaReady) throws IOException {
+        this.latencia = latencia;
+        this.tasaError = tasaError;
+        this.demoraTareaReady = demoraTareaReady;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/bonita", this::atender);
+        this.server.start();
+    }
+
+    /** Valor para external.service.url (BonitaService le agrega /bonita). */
+    public String url() {
+        return "http://localhost:" + this.server.getAddress().getPort();
+    }
+
+    public Map<String, Long> llamadasPorEndpoint() {
+        Map<String, Long> out = new TreeMap<>();
+        this.llamadas.forEach((k, v) -> out.put(k, v.get()));
+        return out;
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.close();
+    }
+
+    private void atender(HttpExchange ex) throws IOException {
+        try {
+            String metodo = ex.getRequestMethod();
+            String path = ex.getRequestURI().getPath().substring("/bonita".length());
+            Map<String, List<String>> query = parsearQuery(ex.getRequestURI().getRawQuery());
+            ex.getRequestBody().readAllBytes();
+
+            String clave = metodo + " " + path.replaceAll("/\\d+", "/{id}");
+            this.llamadas.computeIfAbsent(clave, k -> new AtomicLong()).incrementAndGet();
+
+            if (!this.latencia.isZero()) Thread.sleep(this.latencia);
+            if (this.tasaError > 0 && ThreadLocalRandom.current().nextDouble() < this.tasaError) {
+                responder(ex, 500, Map.of("exception", "Error simulado"));
+                return;
+            }
+
+            if (path.equals("/loginservice")) {
+                ex.getResponseHeaders().add("Set-Cookie", "JSESSIONID=" + UUID.randomUUID() + "; Path=/bonita; HttpOnly");
+                ex.getResponseHeaders().add("Set-Cookie", "X-Bonita-API-Token=" + UUID.randomUUID() + "; Path=/bonita");
+                ex.sendResponseHeaders(204, -1);
+            } else if (path.equals("/logoutservice")) {
+                ex.sendResponseHeaders(200, -1);
+            } else if (path.equals("/API/bpm/process") && metodo.equals("GET")) {
+                responder(ex, 200, List.of(Map.of("id", PROCESS_ID, "name", Objects.toString(valorFiltro(query, "name"), ""),
+                        "version", "1.0", "activationState", "ENABLED")));
+            } else if (path.matches("/API/bpm/process/\\d+/instantiation")) {
+                long caseId = this.secuenciaCasos.incrementAndGet();
+                this.tareasPorCaso.put(caseId, System.nanoTime() + this.demoraTareaReady.toNanos());
+                responder(ex, 200, Map.of("caseId", caseId));
+            } else if (path.equals("/API/bpm/humanTask") && metodo.equals("GET")) {
+                responder(ex, 200, this.tareasReady(query));
+            } else if (path.matches("/API/bpm/humanTask/\\d+") || path.startsWith("/API/bpm/caseVariable/")) {
+                ex.sendResponseHeaders(200, -1);
+            } else if (path.matches("/API/bpm/userTask/\\d+/execution")) {
+                this.tareasEjecutadas.add(Long.parseLong(path.split("/")[4]) - 1_000_000L);
+                ex.sendResponseHeaders(204, -1);
+            } else if (path.equals("/API/identity/user")) {
+                responder(ex, 200, List.of(Map.of("id", "4", "userName", Objects.toString(valorFiltro(query, "userName"), ""))));
+            } else {
+                responder(ex, 404, Map.of("exception", "No encontrado: " + path));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ex.close();
+        }
+    }
+
+    // el ID de tarea es caseId + 1.000.000, así no hace falta otra tabla
+    private List<Map<String, Object>> tareasReady(Map<String, List<String>> query) {
+        long ahora = System.nanoTime();
+        String caseId = valorFiltro(query, "caseId");
+        List<Map<String, Object>> tareas = new ArrayList<>();
+        this.tareasPorCaso.forEach((caso, readyDesde) -> {
+            if (ahora < readyDesde || this.tareasEjecutadas.contains(caso)) return;
+            if (caseId != null && !caseId.equals(String.valueOf(caso))) return;
+            tareas.add(Map.of("id", String.valueOf(caso + 1_000_000L), "caseId", String.valueOf(caso),
+                    "processId", PROCESS_ID, "state", "ready", "name", "Completar proyecto"));
+        });
+        tareas.sort(Comparator.comparing((Map<String, Object> t) -> Long.parseLong((String) t.get("caseId"))).reversed());
+        return tareas;
+    }
+
+    private void responder(HttpExchange ex, int status, Object body) throws IOException {
+        byte[] bytes = this.mapper.writeValueAsBytes(body);
+        ex.getResponseHeaders().add("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, bytes.length);
+        ex.getResponseBody().write(bytes);
+    }
+
+    private static String valorFiltro(Map<String, List<String>> query, String campo) {
+        return query.getOrDefault("f", List.of()).stream()
+                .filter(f -> f.startsWith(campo + "="))
+                .map(f -> f.substring(campo.length() + 1))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static Map<String, List<String>> parsearQuery(String raw) {
+        Map<String, List<String>> out = new HashMap<>();
+        if (raw == null) return out;
+        for (String par : raw.split("&")) {
+            int i = par.indexOf('=');
+            String k = URLDecoder.decode(i < 0 ? par : par.substring(0, i), StandardCharsets.UTF_8);
+            String v = i < 0 ? "" : URLDecoder.decode(par.substring(i + 1), StandardCharsets.UTF_8);
+            out.computeIfAbsent(k, x -> new ArrayList<>()).add(v);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,173 @@
+package grupo16.dssd_backend.carga;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de POST /api/v1/crear-proyecto contra BonitaFalso y H2 en memoria.
+ * No corre con `test`; se lanza con `./gradlew cargaTest` y se ajusta por propiedades de sistema:
+ * carga.usuarios, carga.requests-por-usuario, carga.actividades, carga.bonita.latencia-ms,
+ * carga.bonita.tasa-error y carga.bonita.demora-tarea-ms.
+ * <p>
+ * Sin errores simulados todos los logins y creaciones tienen que salir bien; con tasa-error
+ * se exige al menos carga.exito-minimo (fracción) de creaciones exitosas.
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:carga;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "sesiones.jdbc.inicializar-esquema=ALWAYS",
+        "admision.habilitada=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.grupo16.dssd_backend=WARN"
+})
+class CargaCrearProyectoTests {
+
+    private static final int USUARIOS = Integer.getInteger("carga.usuarios", 20);
+    private static final int REQUESTS_POR_USUARIO = Integer.getInteger("carga.requests-por-usuario", 25);
+    private static final int ACTIVIDADES = Integer.getInteger("carga.actividades", 10);
+    private static final double TASA_ERROR = Double.parseDouble(System.getProperty("carga.bonita.tasa-error", "0"));
+    private static final double EXITO_MINIMO = Double.parseDouble(System.getProperty("carga.exito-minimo", "0.5"));
+
+    private static final BonitaFalso BONITA = iniciarBonita();
+
+    @LocalServerPort
+    private int puerto;
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registry) {
+        registry.add("external.service.url", BONITA::url);
+    }
+
+    @AfterAll
+    static void detenerBonita() {
+        BONITA.close();
+    }
+
+    @Test
+    void crearProyectoBajoCarga() throws Exception {
+        String body = proyectoJson(ACTIVIDADES);
+        List<Long> latencias = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger errores = new AtomicInteger();
+        AtomicInteger loginsFallidos = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        try (ExecutorService usuarios = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < USUARIOS; u++) {
+                final int usuario = u;
+                usuarios.submit(() -> {
+                    HttpClient cliente = HttpClient.newBuilder()
+                            .cookieHandler(new CookieManager())
+                            .connectTimeout(Duration.ofSeconds(5))
+                            .build();
+                    int login = this.enviar(cliente, "/api/v1/login",
+                            "{\"username\":\"usuario" + usuario + "\",\"password\":\"bpm\"}");
+                    if (login != 200) loginsFallidos.incrementAndGet();
+                    for (int r = 0; r < REQUESTS_POR_USUARIO; r++) {
+                        long t0 = System.nanoTime();
+                        int status = this.enviar(cliente, "/api/v1/crear-proyecto", body);
+                        latencias.add(System.nanoTime() - t0);
+                        if (status != 200) errores.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        List<Long> ordenadas = new ArrayList<>(latencias);
+        Collections.sort(ordenadas);
+        int total = ordenadas.size();
+        System.out.printf("""
+
+                ==== Carga crear-proyecto ====
+                usuarios=%d requests=%d actividades=%d logins fallidos=%d
+                throughput=%.1f req/s  errores=%d (%.2f%%)
+                p50=%.1f ms  p99=%.1f ms  max=%.1f ms
+                llamadas a Bonita: %s
+                %n""",
+                USUARIOS, total, ACTIVIDADES, loginsFallidos.get(),
+                total / segundos, errores.get(), 100.0 * errores.get() / total,
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.99), ordenadas.get(total - 1) / 1e6,
+                BONITA.llamadasPorEndpoint());
+
+        assertThat(total).isEqualTo(USUARIOS * REQUESTS_POR_USUARIO);
+        if (TASA_ERROR == 0) {
+            assertThat(loginsFallidos.get()).as("logins fallidos").isZero();
+            assertThat(errores.get()).as("creaciones fallidas").isZero();
+        } else {
+            double exito = 1.0 - (double) errores.get() / total;
+            assertThat(exito).as("fracción de creaciones exitosas").isGreaterThanOrEqualTo(EXITO_MINIMO);
+        }
+    }
+
+    private int enviar(HttpClient cliente, String path, String json) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + this.puerto + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        try {
+            return cliente.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static double percentil(List<Long> ordenadas, double p) {
+        int indice = (int) Math.ceil(p * ordenadas.size()) - 1;
+        return ordenadas.get(Math.max(indice, 0)) / 1e6;
+    }
+
+    private static String proyectoJson(int actividades) {
+        StringBuilder sb = new StringBuilder("{\"nombre\":\"Proyecto de carga\",\"descripcion\":\"Prueba\","
+                + "\"ubicacion\":\"La Plata\",\"actividades\":[");
+        for (int i = 0; i < actividades; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"nombre\":\"Actividad ").append(i)
+                    .append("\",\"fechaInicio\":\"2025-01-01\",\"fechaFin\":\"2025-02-01\",")
+                    .append("\"recurso\":\"MANO_DE_OBRA\",\"requiereColaboracion\":").append(i % 2 == 0).append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static BonitaFalso iniciarBonita() {
+        try {
+            return new BonitaFalso(
+                    Duration.ofMillis(Long.getLong("carga.bonita.latencia-ms", 5)),
+                    TASA_ERROR,
+                    Duration.ofMillis(Long.getLong("carga.bonita.demora-tarea-ms", 50)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
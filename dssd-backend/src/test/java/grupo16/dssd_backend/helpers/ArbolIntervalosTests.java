@@ -0,0 +1,121 @@
+package grupo16.dssd_backend.helpers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compara el árbol contra una lista recorrida por fuerza bruta, con inicios repetidos para
+ * ejercitar el desempate por id y eliminaciones de nodos con dos hijos.
+ */
+class ArbolIntervalosTests {
+
+    private record Intervalo(long inicio, long fin, long id) {}
+
+    private static final Comparator<Intervalo> ORDEN = Comparator.comparingLong(Intervalo::inicio)
+            .thenComparingLong(Intervalo::id);
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 7, 42, 2025})
+    void coincideConFuerzaBrutaConInsercionesYEliminacionesAlAzar(long semilla) {
+        Random random = new Random(semilla);
+        ArbolIntervalos<Intervalo> arbol = new ArbolIntervalos<>();
+        List<Intervalo> referencia = new ArrayList<>();
+        long siguienteId = 0;
+
+        for (int paso = 0; paso < 3000; paso++) {
+            if (referencia.isEmpty() || random.nextInt(3) > 0) {
+                // rango chico de inicios: muchos repetidos
+                long inicio = random.nextInt(60);
+                Intervalo nuevo = new Intervalo(inicio, inicio + random.nextInt(25), siguienteId++);
+                arbol.insertar(nuevo.inicio(), nuevo.fin(), nuevo.id(), nuevo);
+                referencia.add(nuevo);
+            } else {
+                Intervalo quitado = referencia.remove(random.nextInt(referencia.size()));
+                assertThat(arbol.eliminar(quitado.inicio(), quitado.id())).isTrue();
+                assertThat(arbol.eliminar(quitado.inicio(), quitado.id())).isFalse();
+            }
+            assertThat(arbol.tamanio()).isEqualTo(referencia.size());
+
+            if (paso % 10 == 0) {
+                long desde = random.nextInt(90) - 5;
+                long hasta = desde + random.nextInt(30);
+                int limite = random.nextBoolean() ? Integer.MAX_VALUE : 1 + random.nextInt(10);
+                Predicate<Intervalo> filtro = random.nextBoolean() ? i -> true : i -> i.id() % 2 == 0;
+                assertThat(solapados(arbol, desde, hasta, filtro, limite))
+                        .as("[%d, %d] limite %d en el paso %d", desde, hasta, limite, paso)
+                        .containsExactlyElementsOf(fuerzaBruta(referencia, desde, hasta, filtro, limite));
+            }
+        }
+    }
+
+    @Test
+    void eliminarNodosConDosHijosConservaElResto() {
+        ArbolIntervalos<Intervalo> arbol = new ArbolIntervalos<>();
+        List<Intervalo> referencia = new ArrayList<>();
+        // inserción ordenada: el AVL rota y deja nodos internos con dos hijos
+        for (long id = 0; id < 31; id++) {
+            Intervalo intervalo = new Intervalo(id / 3, id / 3 + id % 5, id);
+            arbol.insertar(intervalo.inicio(), intervalo.fin(), intervalo.id(), intervalo);
+            referencia.add(intervalo);
+        }
+
+        // los del medio del orden son los que quedan arriba del árbol
+        for (long id : new long[]{15, 7, 23, 16, 3, 11}) {
+            Intervalo quitado = referencia.stream().filter(i -> i.id() == id).findFirst().orElseThrow();
+            referencia.remove(quitado);
+            assertThat(arbol.eliminar(quitado.inicio(), quitado.id())).isTrue();
+
+            assertThat(solapados(arbol, Long.MIN_VALUE, Long.MAX_VALUE, i -> true, Integer.MAX_VALUE))
+                    .containsExactlyElementsOf(referencia.stream().sorted(ORDEN).toList());
+            assertThat(solapados(arbol, 4, 6, i -> true, Integer.MAX_VALUE))
+                    .containsExactlyElementsOf(fuerzaBruta(referencia, 4, 6, i -> true, Integer.MAX_VALUE));
+        }
+        assertThat(arbol.tamanio()).isEqualTo(referencia.size());
+    }
+
+    @Test
+    void extremosInclusivos() {
+        ArbolIntervalos<String> arbol = new ArbolIntervalos<>();
+        arbol.insertar(10, 20, 1, "a");
+
+        List<String> resultado = new ArrayList<>();
+        arbol.solapados(20, 30, s -> true, resultado, 10);
+        arbol.solapados(0, 10, s -> true, resultado, 10);
+        arbol.solapados(21, 30, s -> true, resultado, 10);
+        assertThat(resultado).containsExactly("a", "a");
+    }
+
+    @Test
+    void rechazaIntervaloInvertido() {
+        ArbolIntervalos<String> arbol = new ArbolIntervalos<>();
+        assertThatThrownBy(() -> arbol.insertar(5, 4, 1, "x")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(arbol.tamanio()).isZero();
+    }
+
+    private static List<Intervalo> solapados(ArbolIntervalos<Intervalo> arbol, long desde, long hasta,
+                                             Predicate<Intervalo> filtro, int limite) {
+        List<Intervalo> resultado = new ArrayList<>();
+        arbol.solapados(desde, hasta, filtro, resultado, limite);
+        return resultado;
+    }
+
+    private static List<Intervalo> fuerzaBruta(List<Intervalo> intervalos, long desde, long hasta,
+                                               Predicate<Intervalo> filtro, int limite) {
+        return intervalos.stream()
+                .filter(i -> i.inicio() <= hasta && i.fin() >= desde)
+                .filter(filtro)
+                .sorted(ORDEN)
+                .limit(limite)
+                .toList();
+    }
+}
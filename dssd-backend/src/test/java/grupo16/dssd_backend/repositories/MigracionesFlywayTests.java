@@ -0,0 +1,53 @@
+package grupo16.dssd_backend.repositories;
+
+import grupo16.dssd_backend.models.Proyecto;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Actualización desde una base creada por ddl-auto=update: Flyway la adopta como versión 0,
+ * las migraciones agregan lo que falta y Hibernate valida el esquema resultante.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migraciones;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/esquema-previo.sql'",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MigracionesFlywayTests {
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void adoptaBaseExistenteYAgregaColumnasNuevas() {
+        MigrationInfo[] aplicadas = this.flyway.info().applied();
+        // baseline-version=0: la base previa quedó adoptada y encima se aplicaron las migraciones
+        assertThat(aplicadas).anyMatch(MigracionesFlywayTests::esBaseline);
+        assertThat(Arrays.stream(aplicadas).filter(m -> !esBaseline(m)))
+                .isNotEmpty()
+                .allMatch(m -> m.getState().isApplied() && !m.getState().isFailed());
+
+        Proyecto previo = this.proyectoRepository.findById(1L).orElseThrow();
+        assertThat(previo.getNombre()).isEqualTo("Proyecto previo");
+        assertThat(previo.getEstadoCaso()).isNull();
+        assertThat(previo.getCasoActualizado()).isNull();
+    }
+
+    private static boolean esBaseline(MigrationInfo migracion) {
+        return "0".equals(migracion.getVersion().getVersion());
+    }
+}
@@ -0,0 +1,60 @@
+package grupo16.dssd_backend.repositories;
+
+import grupo16.dssd_backend.dtos.ActividadDTO;
+import grupo16.dssd_backend.dtos.ProyectoDTO;
+import grupo16.dssd_backend.models.Proyecto;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProyectoRepositoryBatchTests {
+
+    private static final int TAMANIO_LOTE = 50;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50, 120, 500})
+    void guardarProyectoConActividadesUsaInsertsEnLote(int cantidadActividades) {
+        Statistics stats = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        proyectoRepository.save(new Proyecto(proyectoConActividades(cantidadActividades)));
+        entityManager.flush();
+
+        long lotes = (cantidadActividades + TAMANIO_LOTE - 1) / TAMANIO_LOTE;
+        // INSERT del proyecto + un INSERT por lote de actividades, y una llamada a secuencia
+        // cada 50 IDs por entidad (+1 por entidad en la primera asignación del optimizador pooled)
+        long maximoEsperado = (1 + lotes) + (1 + lotes) + 2;
+
+        assertThat(stats.getEntityInsertCount()).isEqualTo(cantidadActividades + 1);
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(maximoEsperado);
+    }
+
+    private static ProyectoDTO proyectoConActividades(int cantidad) {
+        var actividades = IntStream.range(0, cantidad)
+                .mapToObj(i -> new ActividadDTO("Actividad " + i, LocalDate.of(2025, 1, 1),
+                        LocalDate.of(2025, 2, 1), "MANO_DE_OBRA", i % 2 == 0))
+                .toList();
+        return new ProyectoDTO("Proyecto", "Descripción", "La Plata", null, actividades);
+    }
+}
@@ -0,0 +1,120 @@
+package grupo16.dssd_backend.services;
+
+import grupo16.dssd_backend.dtos.BonitaSession;
+import grupo16.dssd_backend.dtos.CasoBonitaDTO;
+import grupo16.dssd_backend.dtos.EstadisticasRegionDTO;
+import grupo16.dssd_backend.dtos.ProyectoDTO;
+import grupo16.dssd_backend.models.Proyecto;
+import grupo16.dssd_backend.repositories.CheckpointReconciliacionRepository;
+import grupo16.dssd_backend.repositories.ProyectoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class ReconciliadorCasosBonitaTests {
+
+    private static final int TAMANIO_PAGINA = 2;
+    private static final int MAX_PAGINAS = 2;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private CheckpointReconciliacionRepository checkpoints;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void retomaDesdeLaPrimeraPaginaSinLeerCuandoLlegaAlTope() {
+        // 7 casos, 2 por página: 4 páginas, más que las 2 que se leen por corrida
+        List<CasoBonitaDTO> casos = new ArrayList<>();
+        for (long caseId = 7; caseId >= 1; caseId--) {
+            Proyecto proyecto = new Proyecto(new ProyectoDTO("Proyecto " + caseId, null, null, null, null));
+            proyecto.setCaseId(caseId);
+            this.proyectoRepository.save(proyecto);
+            casos.add(new CasoBonitaDTO(String.valueOf(caseId), null, "started", "2025-01-01 10:00:0" + caseId + ".000"));
+        }
+        this.entityManager.flush();
+
+        List<Integer> paginasLeidas = new ArrayList<>();
+        I_BonitaService bonita = mock(I_BonitaService.class);
+        when(bonita.loginAndReturnCookies(anyString(), anyString()))
+                .thenReturn(new BonitaSession("reconciliador", "js", "token", System.currentTimeMillis(), "1"));
+        when(bonita.buscarCasosRecientes(eq(false), anyInt(), anyInt())).thenAnswer(inv -> {
+            int pagina = inv.getArgument(1);
+            paginasLeidas.add(pagina);
+            int desde = Math.min(pagina * TAMANIO_PAGINA, casos.size());
+            return casos.subList(desde, Math.min(desde + TAMANIO_PAGINA, casos.size()));
+        });
+        when(bonita.buscarCasosRecientes(eq(true), anyInt(), anyInt())).thenReturn(List.of());
+        when(bonita.buscarTareasRecientes(anyBoolean(), anyInt(), anyInt())).thenReturn(List.of());
+
+        AtomicInteger invalidaciones = new AtomicInteger();
+        ReconciliadorCasosBonita reconciliador = new ReconciliadorCasosBonita(bonita, this.checkpoints,
+                new JdbcTemplate(this.dataSource), this.transactionManager, new CacheFalso(invalidaciones),
+                "reconciliador", "bpm", TAMANIO_PAGINA, MAX_PAGINAS, 100, new SimpleMeterRegistry());
+
+        reconciliador.reconciliar();
+        assertThat(this.checkpoints.findById("casos")).get()
+                .satisfies(c -> assertThat(c.getPaginaPendiente()).isEqualTo(MAX_PAGINAS));
+
+        reconciliador.reconciliar();
+        assertThat(paginasLeidas).containsExactly(0, 1, 2, 3);
+        assertThat(this.checkpoints.findById("casos")).get().satisfies(c -> {
+            assertThat(c.getPaginaPendiente()).isZero();
+            assertThat(c.getMarca()).isEqualTo("2025-01-01 10:00:07.000");
+        });
+
+        List<String> estados = new JdbcTemplate(this.dataSource)
+                .queryForList("select estado_caso from proyecto order by case_id", String.class);
+        assertThat(estados).hasSize(7).containsOnly("started");
+        assertThat(invalidaciones.get()).isEqualTo(2);
+    }
+
+    private record CacheFalso(AtomicInteger invalidaciones) implements I_CacheSegundoNivelService {
+
+        @Override
+        public List<EstadisticasRegionDTO> estadisticas() {
+            return List.of();
+        }
+
+        @Override
+        public void invalidar() {
+            this.invalidaciones.incrementAndGet();
+        }
+
+        @Override
+        public void invalidar(Class<?> entidad) {
+            this.invalidaciones.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+-- Esquema que generaba ddl-auto=update antes de las migraciones (proyecto sin estado ni datos
+-- del caso). Lo corre H2 en cada conexión, por eso es idempotente.
+create sequence if not exists proyecto_seq start with 1 increment by 50;
+create sequence if not exists actividad_seq start with 1 increment by 50;
+
+create table if not exists proyecto (
+    id bigint not null,
+    nombre varchar(255),
+    case_id bigint,
+    descripcion varchar(255),
+    ubicacion varchar(255),
+    primary key (id)
+);
+
+create table if not exists actividad (
+    id bigint not null,
+    nombre varchar(255),
+    fecha_inicio date,
+    fecha_fin date,
+    recurso varchar(255),
+    requiere_colaboracion boolean,
+    proyecto_id bigint not null references proyecto (id),
+    primary key (id)
+);
+
+merge into proyecto (id, nombre, case_id, descripcion, ubicacion) key (id)
+    values (1, 'Proyecto previo', 1001, 'Creado antes de Flyway', 'La Plata');